@@ -81,8 +81,8 @@ public class BannerFragment extends BurstlyFragment {
         LinearLayout bannerParent = (LinearLayout)bannerView.findViewById(R.id.bannerParent);
 
         Burstly.setIntegrationNetwork(ad);
-        //Add BurstlyBanner to layout
-        final BurstlyBanner banner = new BurstlyBanner(this,
+        //Add BurstlyBanner to layout, reusing the banner from the last time this tab was shown
+        final BurstlyBanner banner = BurstlyPlacementRecycler.obtainBanner(this,
                 bannerParent,
                 new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT),
                 "0000000000000000000",
@@ -91,8 +91,11 @@ public class BannerFragment extends BurstlyFragment {
 
         //add listener that will update status and start progress bar
         banner.addBurstlyListener(getBurstlyListener(status, pB));
-        //display ad
-        banner.showAd();
+        //display ad, unless the recycled banner is still showing one and will refresh it on its own
+        if(banner.isShowingAd())
+            status.setText(getString(R.string.idle));
+        else
+            banner.showAd();
 
         //create onclick listener to refresh ad
         ImageView refreshButton = (ImageView)bannerView.findViewById(R.id.refreshButton);
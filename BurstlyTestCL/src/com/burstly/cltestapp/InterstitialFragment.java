@@ -94,8 +94,8 @@ public class InterstitialFragment extends BurstlyFragment {
         }
 
         Burstly.setIntegrationNetwork(ad);
-        //create interstitial
-        final BurstlyInterstitial interstitial = new BurstlyInterstitial( this.getActivity(), "0000000000000000000", adName + " Interstitial", false);
+        //create interstitial, reusing the interstitial and any cached ad from the last time this tab was shown
+        final BurstlyInterstitial interstitial = BurstlyPlacementRecycler.obtainInterstitial(this, "0000000000000000000", adName + " Interstitial", false);
         //add listener
         interstitial.addBurstlyListener(getBurstlyListener(statusTV));
 
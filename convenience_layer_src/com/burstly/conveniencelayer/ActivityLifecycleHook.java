@@ -0,0 +1,79 @@
+package com.burstly.conveniencelayer;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+
+/**
+ * Passes activity pause, resume and destroy events on to the convenience layer through
+ * {@link Application.ActivityLifecycleCallbacks}, so activities don't need to extend {@link BurstlyActivity}.  Fragments
+ * follow their activity, so they don't need to extend {@link BurstlyFragment} either.  Events also reported by those
+ * base classes are only delivered once.
+ *
+ * Requires Android API level 14.  Only load this class after checking the SDK version.
+ */
+final class ActivityLifecycleHook implements Application.ActivityLifecycleCallbacks {
+    /**
+     * The registered hook and the application it is registered with
+     */
+    private static ActivityLifecycleHook sHook;
+    private static Application sApplication;
+
+    private ActivityLifecycleHook() {
+    }
+
+    /**
+     * Registers the hook with the application a context belongs to
+     * @param context Application {@link Context} or an {@link Activity}
+     */
+    static void register(final Context context) {
+        final Context appContext = context.getApplicationContext();
+
+        if(!(appContext instanceof Application)) {
+            Burstly.logW("Application not available. Activities must call Burstly.onPauseActivity, onResumeActivity and onDestroyActivity.");
+            return;
+        }
+
+        unregister();
+
+        sHook = new ActivityLifecycleHook();
+        sApplication = (Application)appContext;
+        sApplication.registerActivityLifecycleCallbacks(sHook);
+    }
+
+    /**
+     * Unregisters the hook
+     */
+    static void unregister() {
+        if(sHook != null)
+            sApplication.unregisterActivityLifecycleCallbacks(sHook);
+
+        sHook = null;
+        sApplication = null;
+    }
+
+    public void onActivityResumed(final Activity activity) {
+        Burstly.onResumeActivity(activity);
+    }
+
+    public void onActivityPaused(final Activity activity) {
+        Burstly.onPauseActivity(activity);
+    }
+
+    public void onActivityDestroyed(final Activity activity) {
+        Burstly.onDestroyActivity(activity);
+    }
+
+    public void onActivityCreated(final Activity activity, final Bundle savedInstanceState) {
+    }
+
+    public void onActivityStarted(final Activity activity) {
+    }
+
+    public void onActivityStopped(final Activity activity) {
+    }
+
+    public void onActivitySaveInstanceState(final Activity activity, final Bundle outState) {
+    }
+}
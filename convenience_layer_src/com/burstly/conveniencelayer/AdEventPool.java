@@ -0,0 +1,295 @@
+package com.burstly.conveniencelayer;
+
+import com.burstly.conveniencelayer.events.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Pool of the event objects passed to {@link IBurstlyListener}s.  Events are immutable, so instead of being recycled
+ * once delivered (which would break listeners such as {@link BurstlyEventJournal} or background listeners which keep
+ * them) identical events are shared.  Network names are interned through {@link NetworkRegistry} and each distinct
+ * waterfall of failed networks is stored once as a read-only {@link NetworkIdList}, and the events built from it are
+ * cached alongside it.  Ad callbacks come from a small set of zones and networks, so once the pool is warm steady
+ * state callbacks allocate nothing.
+ *
+ * Every table is bounded.  When a table is full new values are built without being pooled.  All methods must be called
+ * from the ui thread.
+ */
+final class AdEventPool {
+    /**
+     * Limits
+     */
+    private static final int MAX_CLICK_EVENTS = 256;
+    private static final int MAX_WATERFALLS = 64;
+    private static final int MAX_EVENTS_PER_WATERFALL = 16;
+    private static final int MAX_THROTTLE_EVENTS = 16;
+
+    /**
+     * A distinct list of failed networks and the events built from it
+     */
+    private static final class Waterfall {
+        /**
+         * Read-only list of the failed networks handed out by events
+         */
+        final NetworkIdList mNetworks;
+
+        /**
+         * Show, cache and fail events which reference this waterfall
+         */
+        final ArrayList<AdEvent> mEvents = new ArrayList<AdEvent>();
+
+        Waterfall(final NetworkIdList networks) {
+            mNetworks = networks;
+        }
+
+        /**
+         * Compares this waterfall to the failures recorded for a request
+         * @param failed The recorded failures
+         * @return true if the waterfalls match
+         */
+        boolean matches(final FailedNetworkRecorder failed) {
+            if(mNetworks.size() != failed.size())
+                return false;
+
+            for(int i = 0; i < mNetworks.size(); i++) {
+                if(mNetworks.getId(i) != failed.getId(i))
+                    return false;
+            }
+
+            return true;
+        }
+    }
+
+    private static final ArrayList<Waterfall> sWaterfalls = new ArrayList<Waterfall>();
+    private static final ArrayList<AdFailEvent> sThrottleEvents = new ArrayList<AdFailEvent>();
+    private static final HashMap<String, AdClickEvent> sClickEvents = new HashMap<String, AdClickEvent>();
+    private static final HashMap<AdShowEvent, AdHideEvent[]> sHideEvents = new HashMap<AdShowEvent, AdHideEvent[]>();
+    private static final HashMap<AdShowEvent, AdDismissFullscreenEvent[]> sDismissEvents = new HashMap<AdShowEvent, AdDismissFullscreenEvent[]>();
+    private static final AdPresentFullscreenEvent sPresentEvent = new AdPresentFullscreenEvent(false);
+    private static final AdPresentFullscreenEvent sExpandEvent = new AdPresentFullscreenEvent(true);
+
+    private AdEventPool() {
+    }
+
+    /**
+     * Gets the shared instance of a network name
+     * @param network The network name
+     * @return An equal {@link String} shared by every event
+     */
+    static String intern(final String network) {
+        return NetworkRegistry.getName(NetworkRegistry.getId(network));
+    }
+
+    /**
+     * Finds or creates the waterfall matching the failures recorded for a request
+     * @param failed The recorded failures
+     * @return The matching {@link Waterfall}
+     */
+    private static Waterfall waterfall(final FailedNetworkRecorder failed) {
+        for(int i = 0; i < sWaterfalls.size(); i++) {
+            final Waterfall waterfall = sWaterfalls.get(i);
+
+            if(waterfall.matches(failed))
+                return waterfall;
+        }
+
+        final Waterfall waterfall = new Waterfall(failed.toList());
+
+        if(sWaterfalls.size() < MAX_WATERFALLS)
+            sWaterfalls.add(waterfall);
+
+        return waterfall;
+    }
+
+    /**
+     * Adds an event to a waterfall's cache if there is room
+     * @param waterfall The waterfall the event references
+     * @param event The new event
+     */
+    private static void pool(final Waterfall waterfall, final AdEvent event) {
+        if(waterfall.mEvents.size() < MAX_EVENTS_PER_WATERFALL)
+            waterfall.mEvents.add(event);
+    }
+
+    /**
+     * Gets an {@link AdShowEvent}
+     * @param isActivityInterstitial Whether the ad is shown in a new {@link android.app.Activity}
+     * @param network The network which loaded the ad
+     * @param failed The failures recorded for the request
+     * @param isRefresh Whether the ad is shown as the result of a refresh
+     * @return An {@link AdShowEvent} with the given data
+     */
+    static AdShowEvent obtainShowEvent(boolean isActivityInterstitial, final String network, final FailedNetworkRecorder failed, boolean isRefresh) {
+        final Waterfall waterfall = waterfall(failed);
+        final ArrayList<AdEvent> events = waterfall.mEvents;
+
+        for(int i = 0; i < events.size(); i++) {
+            final AdEvent event = events.get(i);
+
+            if(event instanceof AdShowEvent) {
+                final AdShowEvent show = (AdShowEvent)event;
+
+                if(show.isActivityInterstitial() == isActivityInterstitial && show.isRefreshedAd() == isRefresh && equal(show.getLoadedCreativeNetwork(), network))
+                    return show;
+            }
+        }
+
+        final AdShowEvent show = new AdShowEvent(isActivityInterstitial, intern(network), waterfall.mNetworks, isRefresh);
+        pool(waterfall, show);
+        return show;
+    }
+
+    /**
+     * Gets an {@link AdCacheEvent}
+     * @param network The network which cached the ad
+     * @param failed The failures recorded for the request
+     * @return An {@link AdCacheEvent} with the given data
+     */
+    static AdCacheEvent obtainCacheEvent(final String network, final FailedNetworkRecorder failed) {
+        final Waterfall waterfall = waterfall(failed);
+        final ArrayList<AdEvent> events = waterfall.mEvents;
+
+        for(int i = 0; i < events.size(); i++) {
+            final AdEvent event = events.get(i);
+
+            if(event instanceof AdCacheEvent && equal(((AdCacheEvent)event).getLoadedCreativeNetwork(), network))
+                return (AdCacheEvent)event;
+        }
+
+        final AdCacheEvent cache = new AdCacheEvent(intern(network), waterfall.mNetworks);
+        pool(waterfall, cache);
+        return cache;
+    }
+
+    /**
+     * Gets an {@link AdFailEvent} for a request where every network failed
+     * @param failed The failures recorded for the request
+     * @param minTimeUntilNextRequest Minimum time in ms until the next request can be made
+     * @param wasPrecacheCall Whether the failure was the result of a precache
+     * @return An {@link AdFailEvent} with the given data
+     */
+    static AdFailEvent obtainFailEvent(final FailedNetworkRecorder failed, int minTimeUntilNextRequest, boolean wasPrecacheCall) {
+        final Waterfall waterfall = waterfall(failed);
+        final ArrayList<AdEvent> events = waterfall.mEvents;
+
+        for(int i = 0; i < events.size(); i++) {
+            final AdEvent event = events.get(i);
+
+            if(event instanceof AdFailEvent) {
+                final AdFailEvent fail = (AdFailEvent)event;
+
+                if(fail.getMinTimeUntilNextRequest() == minTimeUntilNextRequest && fail.wasFailureResultOfCachingAttempt() == wasPrecacheCall)
+                    return fail;
+            }
+        }
+
+        final AdFailEvent fail = new AdFailEvent(waterfall.mNetworks, minTimeUntilNextRequest, wasPrecacheCall);
+        pool(waterfall, fail);
+        return fail;
+    }
+
+    /**
+     * Gets an {@link AdFailEvent} for a throttled request
+     * @param minTimeUntilNextRequest Minimum time in ms until the next request can be made
+     * @param wasPrecacheCall Whether the failure was the result of a precache
+     * @return An {@link AdFailEvent} with the given data
+     */
+    static AdFailEvent obtainThrottleEvent(int minTimeUntilNextRequest, boolean wasPrecacheCall) {
+        for(int i = 0; i < sThrottleEvents.size(); i++) {
+            final AdFailEvent fail = sThrottleEvents.get(i);
+
+            if(fail.getMinTimeUntilNextRequest() == minTimeUntilNextRequest && fail.wasFailureResultOfCachingAttempt() == wasPrecacheCall)
+                return fail;
+        }
+
+        final AdFailEvent fail = new AdFailEvent(minTimeUntilNextRequest, wasPrecacheCall);
+
+        if(sThrottleEvents.size() < MAX_THROTTLE_EVENTS)
+            sThrottleEvents.add(fail);
+
+        return fail;
+    }
+
+    /**
+     * Gets an {@link AdHideEvent}
+     * @param isARefresh Whether the ad is being replaced by a refresh
+     * @param showEvent The {@link AdShowEvent} of the ad being hidden
+     * @return An {@link AdHideEvent} with the given data
+     */
+    static AdHideEvent obtainHideEvent(boolean isARefresh, final AdShowEvent showEvent) {
+        AdHideEvent[] hides = sHideEvents.get(showEvent);
+
+        if(hides == null) {
+            hides = new AdHideEvent[2];
+
+            if(sHideEvents.size() < MAX_WATERFALLS * MAX_EVENTS_PER_WATERFALL)
+                sHideEvents.put(showEvent, hides);
+        }
+
+        final int index = isARefresh ? 1 : 0;
+
+        if(hides[index] == null)
+            hides[index] = new AdHideEvent(isARefresh, showEvent);
+
+        return hides[index];
+    }
+
+    /**
+     * Gets an {@link AdDismissFullscreenEvent}
+     * @param showEvent The {@link AdShowEvent} of the ad which was fullscreen
+     * @param wasCollapse Whether an expanded ad was collapsed
+     * @return An {@link AdDismissFullscreenEvent} with the given data
+     */
+    static AdDismissFullscreenEvent obtainDismissFullscreenEvent(final AdShowEvent showEvent, boolean wasCollapse) {
+        AdDismissFullscreenEvent[] dismisses = sDismissEvents.get(showEvent);
+
+        if(dismisses == null) {
+            dismisses = new AdDismissFullscreenEvent[2];
+
+            if(sDismissEvents.size() < MAX_WATERFALLS * MAX_EVENTS_PER_WATERFALL)
+                sDismissEvents.put(showEvent, dismisses);
+        }
+
+        final int index = wasCollapse ? 1 : 0;
+
+        if(dismisses[index] == null)
+            dismisses[index] = new AdDismissFullscreenEvent(showEvent, wasCollapse);
+
+        return dismisses[index];
+    }
+
+    /**
+     * Gets an {@link AdPresentFullscreenEvent}
+     * @param wasExpand Whether an expandable ad was expanded
+     * @return The shared {@link AdPresentFullscreenEvent}
+     */
+    static AdPresentFullscreenEvent obtainPresentFullscreenEvent(boolean wasExpand) {
+        return wasExpand ? sExpandEvent : sPresentEvent;
+    }
+
+    /**
+     * Gets an {@link AdClickEvent}
+     * @param network The network which was clicked
+     * @return An {@link AdClickEvent} with the given data
+     */
+    static AdClickEvent obtainClickEvent(final String network) {
+        AdClickEvent click = sClickEvents.get(network);
+
+        if(click == null) {
+            click = new AdClickEvent(intern(network));
+
+            if(sClickEvents.size() < MAX_CLICK_EVENTS)
+                sClickEvents.put(click.getClickedNetwork(), click);
+        }
+
+        return click;
+    }
+
+    /**
+     * Compares two possibly null strings
+     */
+    private static boolean equal(final String a, final String b) {
+        return (a == b) || (a != null && a.equals(b));
+    }
+}
@@ -4,7 +4,11 @@ import android.app.Activity;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.content.DialogInterface;
+import android.content.SharedPreferences;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.v4.app.Fragment;
 import android.telephony.TelephonyManager;
 import android.util.Log;
@@ -13,9 +17,10 @@ import com.burstly.lib.component.networkcomponent.burstly.BurstlyFullscreenActiv
 import com.burstly.lib.currency.CurrencyManager;
 import com.burstly.lib.util.LoggerExt;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.WeakHashMap;
 
 /**
  * Burstly is a singleton which takes care of initializing and shutting down the SDK as well as keeping a list
@@ -33,20 +38,26 @@ public class Burstly {
     protected static boolean sIsInitialized = false;
 
     /**
-     * Map of all ads associated with an Activity
+     * Registry of all ads associated with an Activity or a Fragment within it
      */
-    private static final HashMap<Activity, ArrayList<IActivityListener>> sActivityListeners = new HashMap<Activity, ArrayList<IActivityListener>>();
+    private static final LifecycleTree sLifecycle = new LifecycleTree();
 
     /**
-     * Map of all ads associated with a Fragment
+     * Registry of the BurstlyView names used by live placements and the pubs and zones they are associated with to make
+     * sure a BurstlyView name isn't used with 2 different pub/zone combinations
      */
-    private static final HashMap<Fragment, ArrayList<IFragmentListener>> sFragmentListeners = new HashMap<Fragment, ArrayList<IFragmentListener>>();
+    private static final ViewNameRegistry sViewNames = new ViewNameRegistry();
 
     /**
-     * Map of BurstlyView names to the pubs and zones they are associated with to make sure a BurstlyView name isn't used
-     * with 2 different pub/zone combinations
+     * Every placement whose {@link com.burstly.lib.ui.BurstlyView} has been created and which hasn't been destroyed.
+     * Held weakly so placements which are never destroyed don't leak.
      */
-    private static final HashMap<String, String> sViewMap = new HashMap<String, String>();
+    private static final WeakHashMap<BurstlyBaseAd, Boolean> sPlacements = new WeakHashMap<BurstlyBaseAd, Boolean>();
+
+    /**
+     * Coordinator refreshing every live banner, or null if banners refresh themselves
+     */
+    private static BurstlyRefreshCoordinator sRefreshCoordinator;
 
     /**
      * Flag keeping track of whether logging is enabled or disabled
@@ -68,15 +79,75 @@ public class Burstly {
      */
     private static Context sContext;
 
+    /**
+     * Preferences file and key the device ID is persisted under so it is only looked up once per install
+     */
+    private static final String PREFS_NAME = "com.burstly.conveniencelayer";
+    private static final String PREF_DEVICE_ID = "deviceId";
+
     /**
      * The device ID for the current device
      */
-    private static String sDeviceId;
+    private static volatile String sDeviceId;
 
     /**
-     *
+     * Has the device ID been resolved since init
+     */
+    private static volatile boolean sDeviceIdResolved = false;
+
+    /**
+     * Is this device in the integration mode device list.  Recomputed when either the device ID or the list changes.
+     */
+    private static volatile boolean sIsIntegrationDevice = false;
+
+    /**
+     * Guards resolving the device ID.  Kept separate from the class monitor so the slow lookup never blocks the ui
+     * thread paths which synchronize on Burstly.
+     */
+    private static final Object sDeviceIdLock = new Object();
+
+    /**
+     * Guards creating the currency manager
+     */
+    private static final Object sCurrencyLock = new Object();
+
+    /**
+     * Resolves the device ID in the background after init
      */
-    private static String[] sIntegrationDeviceIDs;
+    private static final Runnable sDeviceIdResolver = new Runnable() {
+        public void run() {
+            resolveDeviceId();
+        }
+    };
+
+    /**
+     * Do new placements create their {@link com.burstly.lib.ui.BurstlyView} on first use instead of when constructed
+     */
+    private static boolean sLazyPlacements = false;
+
+    /**
+     * Runs the parts of initialization which aren't needed to start requesting ads the first time the ui thread is idle
+     */
+    private static final MessageQueue.IdleHandler sDeferredInit = new MessageQueue.IdleHandler() {
+        public boolean queueIdle() {
+            initCurrencyManager();
+            return false;
+        }
+    };
+
+    /**
+     * Registers {@link #sDeferredInit} with the ui thread's message queue
+     */
+    private static final Runnable sScheduleDeferredInit = new Runnable() {
+        public void run() {
+            Looper.myQueue().addIdleHandler(sDeferredInit);
+        }
+    };
+
+    /**
+     * Device IDs which will see integration mode ads, or null for all devices
+     */
+    private static volatile HashSet<String> sIntegrationDeviceIDs;
 
     private static boolean sIntegrationModeEnabled = false;
 
@@ -114,11 +185,19 @@ public class Burstly {
             sIntegrationDeviceIDs = null;
             sIntegrationNetwork = BurstlyIntegrationModeAdNetworks.HOUSE;
 
-            initDeviceId();
+            sDeviceId = null;
+            sDeviceIdResolved = false;
+            sIsIntegrationDevice = false;
+            sCurrencyManager = null;
+
             initBurstly(context, decorator);
 
-            sCurrencyManager = new CurrencyManager();
-            sCurrencyManager.initManager(sContext, sAppID);
+            //The device ID is only needed for integration mode.  Look it up off the ui thread.
+            new Thread(sDeviceIdResolver, "Burstly device id").start();
+
+            //The currency manager isn't needed to show ads.  Set it up once the ui thread runs out of startup work, or on
+            //first use if that is sooner.  It still runs on the ui thread since the SDK expects to be set up there.
+            new Handler(Looper.getMainLooper()).post(sScheduleDeferredInit);
         }
         else {
             logW("Burstly already initialized");
@@ -133,12 +212,18 @@ public class Burstly {
             throw new RuntimeException("Burstly.init never called or Burstly.deinit already called.");
         }
         else {
-            if(sActivityListeners.size() != 0) {
+            if(!sLifecycle.isEmpty()) {
                 logE("Deinitializing Burstly conveniencelayer system before everything is destroyed");
             }
 
+            if(Build.VERSION.SDK_INT >= 14)
+                ActivityLifecycleHook.unregister();
+
             BurstlyFullscreenActivity.removeDecorator("burstlyImage");
             BurstlySdk.shutdown(sContext);
+            sViewNames.clear();
+            setRefreshCoordinator(null);
+            sPlacements.clear();
 
             sIsInitialized = false;
         }
@@ -155,7 +240,12 @@ public class Burstly {
         sLoggingEnabled = true;
         BurstlySdk.init(context);
 
-        sActivityListeners.clear();
+        sLifecycle.clear();
+
+        //Activity and fragment events are delivered automatically on Android 4.0+.  Older versions need the activities
+        //to extend BurstlyActivity or call the onPause, onResume and onDestroy methods themselves.
+        if(Build.VERSION.SDK_INT >= 14)
+            ActivityLifecycleHook.register(context);
 
         if(decorator != null)
             BurstlyFullscreenActivity.addDecorator("burstlyImage", decorator);
@@ -168,13 +258,7 @@ public class Burstly {
      * @param activity The {@link Activity} being paused
      */
     public static void onPauseActivity(final Activity activity) {
-        if(sActivityListeners.containsKey(activity)) {
-            final ArrayList<IActivityListener> listeners = sActivityListeners.get(activity);
-
-            for(IActivityListener listener : listeners) {
-                listener.activityPaused(activity);
-            }
-        }
+        sLifecycle.pauseActivity(activity);
     }
 
     /**
@@ -182,13 +266,7 @@ public class Burstly {
      * @param activity The {@link Activity} being resumed
      */
     public static void onResumeActivity(final Activity activity) {
-        if(sActivityListeners.containsKey(activity)) {
-            final ArrayList<IActivityListener> listeners = sActivityListeners.get(activity);
-
-            for(IActivityListener listener : listeners) {
-                listener.activityResumed(activity);
-            }
-        }
+        sLifecycle.resumeActivity(activity);
     }
 
     /**
@@ -196,48 +274,18 @@ public class Burstly {
      * @param activity The {@link Activity} being destroyed
      */
     public static void onDestroyActivity(final Activity activity) {
-        if(sActivityListeners.containsKey(activity)) {
-            final ArrayList<IActivityListener> listeners = sActivityListeners.get(activity);
-
-            for(int i = listeners.size() - 1; i >= 0; i--) {
-                listeners.get(i).activityDestroyed(activity);
-                listeners.remove(i);
-            }
-
-            sActivityListeners.remove(activity);
-        }
+        sLifecycle.destroyActivity(activity);
+        TimerWheel.get().cancelAll(activity);
     }
 
     /**
      * Add an {@link IActivityListener} to receive callbacks when the activity is paused, resumed, or destroyed
+     * The listener is held weakly, so the caller must keep a reference to it for as long as it should receive callbacks.
      * @param activity The {@link Activity} associated with the ad
      * @param activityListener The new {@link IActivityListener} being added
      */
     public static void addActivityListener(final Activity activity, final IActivityListener activityListener) {
-        if(activityListener instanceof BurstlyBaseAd) {       
-            final BurstlyBaseAd burstlyAd = (BurstlyBaseAd)activityListener;
-            final String name = burstlyAd.getName();
-            final String appZone = burstlyAd.getAppId() + ":" + burstlyAd.getZoneId();
-    
-            if(sViewMap.containsKey(name)) {
-                if(!sViewMap.get(name).equals(appZone)) {
-                    throw new RuntimeException("Attempting to reuse the view Id " + name + " with a different app/zone combination.  Use a new view Id for each pub and zone");
-                }
-            }
-            else {
-                sViewMap.put(name, appZone);
-            }
-        }
-
-        if(sActivityListeners.containsKey(activity)) {
-            sActivityListeners.get(activity).add(activityListener);
-        }
-        else {
-            final ArrayList<IActivityListener> listeners = new ArrayList<IActivityListener>();
-            listeners.add(activityListener);
-
-            sActivityListeners.put(activity, listeners);
-        }
+        sLifecycle.addActivityListener(activity, activityListener);
     }
 
     /**
@@ -247,12 +295,7 @@ public class Burstly {
      * @param activityListener {@link IActivityListener} being removed from the list of listeners
      */
     public static void removeActivityListener(final Activity activity, final IActivityListener activityListener) {
-        if(sActivityListeners.containsKey(activity)) {
-            final ArrayList<IActivityListener> listeners = sActivityListeners.get(activity);
-
-            if(listeners.contains(activityListener))
-                listeners.remove(activityListener);
-        }
+        sLifecycle.removeActivityListener(activity, activityListener);
     }
 
     /**
@@ -260,28 +303,16 @@ public class Burstly {
      * @param activityListener {@link IActivityListener} being removed
      */
     public static void removeActivityListener(final IActivityListener activityListener) {
-        final Object[] listenerLists = sActivityListeners.values().toArray();
-        
-        for(Object listenersObj : listenerLists) {
-            ArrayList<IActivityListener> listeners = (ArrayList<IActivityListener>)listenersObj;
-            
-            if(listeners.contains(activityListener))
-                listeners.remove(activityListener);
-        }
+        sLifecycle.removeActivityListener(activityListener);
     }
 
     /**
-     * Passes fragment onPause events on to necessary BurstlyView objects
+     * Passes fragment onPause events on to necessary BurstlyView objects.  Fragments are also paused along with their
+     * activity, so fragments which don't report their own events still follow the activity.
      * @param fragment The {@link Fragment} being paused
      */
     public static void onPauseFragment(final Fragment fragment) {
-        if(sFragmentListeners.containsKey(fragment)) {
-            final ArrayList<IFragmentListener> listeners = sFragmentListeners.get(fragment);
-
-            for(IFragmentListener listener : listeners) {
-                listener.fragmentPaused(fragment);
-            }
-        }
+        sLifecycle.pauseFragment(fragment);
     }
 
     /**
@@ -289,13 +320,7 @@ public class Burstly {
      * @param fragment The {@link Fragment} being resumed
      */
     public static void onResumeFragment(final Fragment fragment) {
-        if(sFragmentListeners.containsKey(fragment)) {
-            final ArrayList<IFragmentListener> listeners = sFragmentListeners.get(fragment);
-
-            for(IFragmentListener listener : listeners) {
-                listener.fragmentResumed(fragment);
-            }
-        }
+        sLifecycle.resumeFragment(fragment);
     }
 
     /**
@@ -303,48 +328,18 @@ public class Burstly {
      * @param fragment The {@link Fragment} being destroyed
      */
     public static void onDestroyFragment(final Fragment fragment) {
-        if(sFragmentListeners.containsKey(fragment)) {
-            final ArrayList<IFragmentListener> listeners = sFragmentListeners.get(fragment);
-
-            for(int i = listeners.size() - 1; i >= 0; i--) {
-                listeners.get(i).fragmentDestroyed(fragment);
-                listeners.remove(i);
-            }
-
-            sFragmentListeners.remove(fragment);
-        }
+        sLifecycle.destroyFragment(fragment);
+        TimerWheel.get().cancelAll(fragment);
     }
 
     /**
      * Add an {@link IFragmentListener} to receive callbacks when the fragment is paused, resumed, or destroyed
+     * The listener is held weakly, so the caller must keep a reference to it for as long as it should receive callbacks.
      * @param fragment The {@link Fragment} associated with the ad
      * @param fragmentListener The new {@link IFragmentListener} being added
      */
     public static void addFragmentListener(final Fragment fragment, final IFragmentListener fragmentListener) {
-        if(fragmentListener instanceof BurstlyBaseAd) {
-            final BurstlyBaseAd burstlyAd = (BurstlyBaseAd)fragmentListener;
-            final String name = burstlyAd.getName();
-            final String appZone = burstlyAd.getAppId() + ":" + burstlyAd.getZoneId();
-
-            if(sViewMap.containsKey(name)) {
-                if(!sViewMap.get(name).equals(appZone)) {
-                    throw new RuntimeException("Attempting to reuse the view Id " + name + " with a different app/zone combination.  Use a new view Id for each pub and zone");
-                }
-            }
-            else {
-                sViewMap.put(name, appZone);
-            }
-        }
-
-        if(sFragmentListeners.containsKey(fragment)) {
-            sFragmentListeners.get(fragment).add(fragmentListener);
-        }
-        else {
-            final ArrayList<IFragmentListener> listeners = new ArrayList<IFragmentListener>();
-            listeners.add(fragmentListener);
-
-            sFragmentListeners.put(fragment, listeners);
-        }
+        sLifecycle.addFragmentListener(fragment, fragmentListener);
     }
 
     /**
@@ -354,12 +349,7 @@ public class Burstly {
      * @param fragmentListener {@link IFragmentListener} being removed from the list of listeners
      */
     public static void removeFragmentListener(final Fragment fragment, final IFragmentListener fragmentListener) {
-        if(sFragmentListeners.containsKey(fragment)) {
-            final ArrayList<IFragmentListener> listeners = sFragmentListeners.get(fragment);
-
-            if(listeners.contains(fragmentListener))
-                listeners.remove(fragmentListener);
-        }
+        sLifecycle.removeFragmentListener(fragment, fragmentListener);
     }
 
     /**
@@ -367,16 +357,88 @@ public class Burstly {
      * @param fragmentListener {@link IFragmentListener} being removed
      */
     public static void removeFragmentListener(final IFragmentListener fragmentListener) {
-        final Object[] listenerLists = sFragmentListeners.values().toArray();
+        sLifecycle.removeFragmentListener(fragmentListener);
+    }
+
+    /**
+     * Makes sure a BurstlyView name isn't used with 2 different pub/zone combinations and counts the placement as a
+     * user of the name
+     * @param burstlyAd The {@link BurstlyBaseAd} being registered
+     */
+    static void acquireViewName(final BurstlyBaseAd burstlyAd) {
+        sViewNames.acquire(burstlyAd.getName(), burstlyAd.getAppId(), burstlyAd.getZoneId());
+    }
+
+    /**
+     * Releases a destroyed placement's use of its view name so the name can be forgotten once no placements use it
+     * @param burstlyAd The {@link BurstlyBaseAd} being destroyed
+     */
+    static void releaseViewName(final BurstlyBaseAd burstlyAd) {
+        sViewNames.release(burstlyAd.getName());
+    }
+
+    /**
+     * Adds a placement to the live placements once its {@link com.burstly.lib.ui.BurstlyView} has been created
+     * @param burstlyAd The {@link BurstlyBaseAd} whose view was created
+     */
+    static void placementCreated(final BurstlyBaseAd burstlyAd) {
+        sPlacements.put(burstlyAd, Boolean.TRUE);
+
+        if(sRefreshCoordinator != null)
+            sRefreshCoordinator.placementCreated(burstlyAd);
+    }
 
-        for(Object listenersObj : listenerLists) {
-            ArrayList<IFragmentListener> listeners = (ArrayList<IFragmentListener>)listenersObj;
+    /**
+     * Removes a destroyed placement from the live placements
+     * @param burstlyAd The {@link BurstlyBaseAd} being destroyed
+     */
+    static void placementDestroyed(final BurstlyBaseAd burstlyAd) {
+        sPlacements.remove(burstlyAd);
+
+        if(sRefreshCoordinator != null)
+            sRefreshCoordinator.placementDestroyed(burstlyAd);
+    }
 
-            if(listeners.contains(fragmentListener))
-                listeners.remove(fragmentListener);
+    /**
+     * Adds every live placement to a list
+     * @param placements The list the placements are added to
+     */
+    static void getLivePlacements(final List<BurstlyBaseAd> placements) {
+        for(final BurstlyBaseAd burstlyAd : sPlacements.keySet()) {
+            if(burstlyAd != null)
+                placements.add(burstlyAd);
         }
     }
 
+    /**
+     * Sets the {@link BurstlyRefreshCoordinator} which refreshes every live {@link BurstlyBanner} and
+     * {@link BurstlyAnimatedBanner}, including banners which already exist.  The previous coordinator hands refreshing
+     * back to its banners.  Must be called from the ui thread.
+     * @param coordinator The coordinator, or null to let each banner refresh itself
+     */
+    public static void setRefreshCoordinator(final BurstlyRefreshCoordinator coordinator) {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
+        if(coordinator == sRefreshCoordinator)
+            return;
+
+        if(sRefreshCoordinator != null)
+            sRefreshCoordinator.uninstall();
+
+        sRefreshCoordinator = coordinator;
+
+        if(sRefreshCoordinator != null)
+            sRefreshCoordinator.install();
+    }
+
+    /**
+     * Gets the {@link BurstlyRefreshCoordinator} refreshing every live banner
+     * @return The coordinator, or null if banners refresh themselves
+     */
+    public static BurstlyRefreshCoordinator getRefreshCoordinator() {
+        return sRefreshCoordinator;
+    }
+
     /**
      * Enables and disables logging.
      * @param enabled true if enabling, false if disabling
@@ -455,7 +517,40 @@ public class Burstly {
         if(!sIsInitialized)
             throw new RuntimeException("Burstly.init never called or Burstly.deinit already called.");
 
-        return sCurrencyManager;
+        return initCurrencyManager();
+    }
+
+    /**
+     * Creates the currency manager if it hasn't been created since init
+     * @return The currency manager, or null if Burstly is not initialized
+     */
+    private static CurrencyManager initCurrencyManager() {
+        synchronized(sCurrencyLock) {
+            if(sIsInitialized && sCurrencyManager == null) {
+                sCurrencyManager = new CurrencyManager();
+                sCurrencyManager.initManager(sContext, sAppID);
+            }
+
+            return sCurrencyManager;
+        }
+    }
+
+    /**
+     * Sets whether placements constructed from a zone id create their {@link com.burstly.lib.ui.BurstlyView} lazily.
+     * Lazy placements are lightweight until an ad is first cached or shown, which keeps placement construction off the
+     * startup path.  Placements built from a view in a layout are unaffected.
+     * @param lazy true to create views on first use
+     */
+    public static void setLazyPlacements(boolean lazy) {
+        sLazyPlacements = lazy;
+    }
+
+    /**
+     * Gets whether placements constructed from a zone id create their {@link com.burstly.lib.ui.BurstlyView} lazily
+     * @return true if views are created on first use
+     */
+    public static boolean isLazyPlacements() {
+        return sLazyPlacements;
     }
 
 
@@ -464,8 +559,10 @@ public class Burstly {
         if(!sIsInitialized)
             throw new RuntimeException("Burstly.init never called or Burstly.deinit already called.");
 
-        if(integrationDeviceIDs != null)
-            sIntegrationDeviceIDs = integrationDeviceIDs;
+        if(integrationDeviceIDs != null) {
+            sIntegrationDeviceIDs = new HashSet<String>(Arrays.asList(integrationDeviceIDs));
+            updateIntegrationDevice();
+        }
 
         sIntegrationModeEnabled = true;
     }
@@ -486,26 +583,62 @@ public class Burstly {
         return sIntegrationNetwork;
     }
 
+    /**
+     * Resolves the device ID once.  A previously resolved ID is read back from {@link SharedPreferences}, otherwise it is
+     * looked up and persisted.  Runs on a background thread after init, or on the calling thread if the ID is needed
+     * before the background lookup has finished.
+     */
+    static void resolveDeviceId() {
+        synchronized(sDeviceIdLock) {
+            if(sDeviceIdResolved || !sIsInitialized)
+                return;
+
+            final SharedPreferences prefs = sContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            String deviceId = prefs.getString(PREF_DEVICE_ID, null);
+
+            if(deviceId == null) {
+                deviceId = lookupDeviceId();
+
+                if(deviceId != null)
+                    prefs.edit().putString(PREF_DEVICE_ID, deviceId).commit();
+            }
+
+            sDeviceId = deviceId;
+            sDeviceIdResolved = true;
+            updateIntegrationDevice();
+        }
+    }
+
+    /**
+     * Recomputes whether this device is in the integration mode device list
+     */
+    private static void updateIntegrationDevice() {
+        final HashSet<String> deviceIds = sIntegrationDeviceIDs;
+        final String deviceId = sDeviceId;
+
+        sIsIntegrationDevice = (deviceIds != null && deviceId != null && deviceIds.contains(deviceId));
+    }
+
     /**
      * Get device id. This is the same waterfall process used in the Burstly SDK.
+     * @return The device id, or null if this device doesn't have a valid one
      */
-    static synchronized void initDeviceId() {
+    private static String lookupDeviceId() {
         boolean invalidDeviceId = false;
         final TelephonyManager tManager = (TelephonyManager)sContext.getSystemService(Context.TELEPHONY_SERVICE);
-        sDeviceId = tManager.getDeviceId();
-        logD("TelephonyManager: deviceID - {0}" + sDeviceId);
-        invalidDeviceId = !isDeviceIdValid(sDeviceId);
+        String deviceId = tManager.getDeviceId();
+        logD("TelephonyManager: deviceID - {0}" + deviceId);
+        invalidDeviceId = !isDeviceIdValid(deviceId);
 
         // Is there no IMEI or MEID? Is this at least Android 2.3+? Then let's get the serial.
         if (invalidDeviceId && Build.VERSION.SDK_INT >= 9) {
             logD("Trying to get serial of 2.3+ device..."); // THIS CLASS IS ONLY LOADED FOR ANDROID 2.3+
-            sDeviceId = Build.SERIAL;
-            logD("SERIAL: deviceID - {0}" + sDeviceId);
-            invalidDeviceId = !isDeviceIdValid(sDeviceId);
+            deviceId = Build.SERIAL;
+            logD("SERIAL: deviceID - {0}" + deviceId);
+            invalidDeviceId = !isDeviceIdValid(deviceId);
         }
 
-        if(invalidDeviceId)
-            sDeviceId = null;
+        return invalidDeviceId ? null : deviceId;
     }
 
     /**
@@ -535,7 +668,9 @@ public class Burstly {
      *
      * @param context
      */
-    static synchronized void showTestModeAlert(Context context) {
+    static void showTestModeAlert(Context context) {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
         if(sTestModeAlertShown != true){
             AlertDialog.Builder alertDialogBuilder = new AlertDialog.Builder(context);
 
@@ -564,9 +699,16 @@ public class Burstly {
         if(!sIsInitialized)
             throw new RuntimeException("Burstly.init never called or Burstly.deinit already called.");
 
-        if(sIntegrationModeEnabled)
-            return ( sIntegrationDeviceIDs == null || (sDeviceId != null && Arrays.asList(sIntegrationDeviceIDs).contains(sDeviceId)) );
-        else
+        if(!sIntegrationModeEnabled)
             return false;
+
+        if(sIntegrationDeviceIDs == null)
+            return true;
+
+        //only blocks if an ad is created before the background lookup started by init has finished
+        if(!sDeviceIdResolved)
+            resolveDeviceId();
+
+        return sIsIntegrationDevice;
     }
 }
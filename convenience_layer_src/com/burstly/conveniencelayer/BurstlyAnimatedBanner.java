@@ -1,8 +1,6 @@
 package com.burstly.conveniencelayer;
 
 import android.app.Activity;
-import android.os.Handler;
-import android.os.Looper;
 import android.support.v4.app.Fragment;
 import android.view.View;
 import android.view.ViewGroup;
@@ -64,6 +62,7 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
                     Burstly.logW("Intro anim finished but no longer in intro anim state");
 
                 mState = State.OnScreen;
+                checkViewport();
 
                 if(mAnimationCallbacks != null)
                     mAnimationCallbacks.onIntroAnimEnd(BurstlyAnimatedBanner.this);
@@ -78,7 +77,7 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
                 if(mAnimationCallbacks != null)
                     mAnimationCallbacks.onOutroAnimEnd(BurstlyAnimatedBanner.this);
 
-                BurstlyAnimatedBanner.this.onHide(new AdHideEvent(false, mLastShow));
+                BurstlyAnimatedBanner.this.onHide(AdEventPool.obtainHideEvent(false, mLastShow));
             }
         }
     }
@@ -272,6 +271,7 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
             }
             else {
                 mState = State.OnScreen;
+                checkViewport();
 
                 if(mAnimationCallbacks != null)
                     mAnimationCallbacks.onIntroAnimEnd(this);
@@ -289,6 +289,10 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
     protected void onHide(final AdHideEvent event) {
         super.onHide(event);
 
+        //a hidden banner isn't refreshed, so viewport suspension no longer applies
+        if(!event.isARefresh() && isViewportSuspended())
+            resumeFromViewport(false);
+
         if(mAutoCached) {
             if(!event.isARefresh() && !event.getMatchingShowEvent().isActivityInterstitial()) {
                 super.baseCacheAd();
@@ -308,14 +312,8 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
         else
             mThrottleTime = 0;
 
-        if(mAutoCached && !hasCachedAd() && !isVisible()) {
-            new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
-                public void run() {
-                    if(!hasCachedAd())
-                        BurstlyAnimatedBanner.super.baseCacheAd();
-                }
-            }, mThrottleTime);
-        }
+        if(mAutoCached && !hasCachedAd() && !isVisible())
+            scheduleCacheRetry(event);
 
         if(mState != State.OnScreen)
             mState = State.Offscreen;
@@ -323,11 +321,18 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
         mCachingState = CachingState.Idle;
 
         //No callbacks for autocaching failures
-        if( !(mAutoCached && event.wasFailureResultOfCachingAttempt()) ) {
-            for(final IBurstlyListener listener:mListeners) {
-                listener.onFail(this, event);
-            }
-        }
+        if( !(mAutoCached && event.wasFailureResultOfCachingAttempt()) )
+            dispatchFail(event);
+    }
+
+    /**
+     * Only an animated banner which is on screen has refreshes to suspend.  Banners hidden with hideAd are out of view
+     * by design and keep precaching.
+     * @return true if the banner is on screen
+     */
+    @Override
+    protected boolean canSuspendForViewport() {
+        return mState == State.OnScreen;
     }
 
     /**
@@ -418,7 +423,7 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
                     mState = State.ShowTriggered;
 
                     if(mRefreshRate > 0)
-                        getBurstlyView().setDefaultSessionLife(mRefreshRate);
+                        getBurstlyView().setDefaultSessionLife(isRefreshCoordinated() ? 0 : mRefreshRate);
 
                     super.showAd();
                 }
@@ -434,7 +439,7 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
                 mThrottleTime = 0;
 
                 if(mRefreshRate > 0)
-                    getBurstlyView().setDefaultSessionLife(mRefreshRate);
+                    getBurstlyView().setDefaultSessionLife(isRefreshCoordinated() ? 0 : mRefreshRate);
 
                 super.showAd();
 
@@ -452,6 +457,14 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
         return (mState.ordinal() >= State.IntroAnim.ordinal());
     }
 
+    /**
+     * Gets the refresh rate used while the banner is on screen
+     * @return The refresh rate in seconds, 0 if the banner is updated manually
+     */
+    public int getRefreshRate() {
+        return mRefreshRate;
+    }
+
     /**
      * Get the state of the animated banner
      * @return The {@link BurstlyAnimatedBanner.State} of the animated banner
@@ -489,7 +502,7 @@ public class BurstlyAnimatedBanner extends BurstlyBaseAd implements ICacheable {
                 if(mAnimationCallbacks != null)
                     mAnimationCallbacks.onOutroAnimEnd(this);
 
-                onHide(new AdHideEvent(false, mLastShow));
+                onHide(AdEventPool.obtainHideEvent(false, mLastShow));
             }
             else {
                 mState = State.OutroAnim;
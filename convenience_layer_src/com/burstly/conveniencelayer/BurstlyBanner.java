@@ -3,6 +3,7 @@ package com.burstly.conveniencelayer;
 import android.app.Activity;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import com.burstly.lib.ui.BurstlyView;
 import android.support.v4.app.Fragment;
 
@@ -11,6 +12,13 @@ import android.support.v4.app.Fragment;
  * of the Activity
  */
 public class BurstlyBanner extends BurstlyBaseAd {
+    /**
+     * Where a lazily constructed banner attaches its {@link BurstlyView} once it is created
+     */
+    private ViewGroup mLazyGroup;
+    private ViewGroup.LayoutParams mLazyParams;
+    private int mLazyRefreshRate;
+
     /**
      * Constructor for a BurstlyBanner built from a {@link BurstlyView} that has been attached to a layout file
      * @param activity The {@link Activity} associated with the banner
@@ -82,14 +90,108 @@ public class BurstlyBanner extends BurstlyBaseAd {
      * @param refreshRate The number of seconds between banner refreshes (Minimum 10 seconds)
      */
     public void initBurstlyBanner(final Activity activity, final ViewGroup group, final ViewGroup.LayoutParams params, final String zoneId, final String viewName, int refreshRate) {
+        if(Burstly.isLazyPlacements()) {
+            mLazyGroup = group;
+            mLazyParams = params;
+            mLazyRefreshRate = refreshRate;
+
+            setLazyBurstlyView(zoneId, viewName, AdType.Banner);
+            return;
+        }
+
+        final BurstlyView burstlyView = buildBurstlyView(activity, zoneId, viewName, refreshRate);
+        setBurstlyView(burstlyView, AdType.Banner);
+        addToGroup(burstlyView, group, params);
+    }
+
+    /**
+     * Creates the {@link BurstlyView} for a lazily constructed banner and attaches it to its {@link ViewGroup}
+     * @return A new {@link BurstlyView}
+     */
+    @Override
+    protected BurstlyView createBurstlyView() {
+        final Activity activity = (mActivity != null) ? mActivity : mFragment.getActivity();
+        final BurstlyView burstlyView = buildBurstlyView(activity, getZoneId(), getName(), mLazyRefreshRate);
+        addToGroup(burstlyView, mLazyGroup, mLazyParams);
+
+        mLazyGroup = null;
+        mLazyParams = null;
+
+        return burstlyView;
+    }
+
+    /**
+     * Removes a recycled banner's {@link BurstlyView} from the layout of the fragment it was detached from
+     */
+    void removeFromParent() {
+        if(!hasBurstlyView())
+            return;
+
+        final BurstlyView burstlyView = getBurstlyView();
+        final ViewParent parent = burstlyView.getParent();
+
+        if(parent instanceof ViewGroup)
+            ((ViewGroup)parent).removeView(burstlyView);
+    }
+
+    /**
+     * Attaches a recycled banner to the layout of its new fragment
+     * @param group The {@link ViewGroup} this ad will be attached to
+     * @param params The {@link ViewGroup.LayoutParams} used to attach an ad to the ViewGroup
+     * @param refreshRate The number of seconds between banner refreshes (Minimum 10 seconds)
+     */
+    void moveTo(final ViewGroup group, final ViewGroup.LayoutParams params, int refreshRate) {
+        if(!hasBurstlyView()) {
+            mLazyGroup = group;
+            mLazyParams = params;
+            mLazyRefreshRate = refreshRate;
+            return;
+        }
+
+        final BurstlyView burstlyView = getBurstlyView();
+
+        removeFromParent();
+
+        if(!isRefreshCoordinated())
+            burstlyView.setDefaultSessionLife(refreshRate);
+
+        addToGroup(burstlyView, group, params);
+    }
+
+    /**
+     * Gets whether the banner is displaying a creative, such as a banner handed back by the
+     * {@link BurstlyPlacementRecycler} with the ad it was showing before its fragment was torn down
+     * @return true if an ad has been shown
+     */
+    public boolean isShowingAd() {
+        return mLastShow != null;
+    }
+
+    /**
+     * Creates a {@link BurstlyView} for a banner zone
+     * @param activity The {@link Activity} associated with this ad
+     * @param zoneId The zoneId for this banner
+     * @param viewName The name of this view which will be used to identify it in the logs
+     * @param refreshRate The number of seconds between banner refreshes
+     * @return A new {@link BurstlyView}
+     */
+    private static BurstlyView buildBurstlyView(final Activity activity, final String zoneId, final String viewName, int refreshRate) {
         final BurstlyView burstlyView  = new BurstlyView(activity);
         burstlyView.setPublisherId( Burstly.getAppID() );
         burstlyView.setZoneId(zoneId);
         burstlyView.setBurstlyViewId(viewName);
         burstlyView.setDefaultSessionLife(refreshRate);
 
-        setBurstlyView(burstlyView, AdType.Banner);
+        return burstlyView;
+    }
 
+    /**
+     * Attaches a banner's {@link BurstlyView} to a {@link ViewGroup}
+     * @param burstlyView The banner's view
+     * @param group The {@link ViewGroup} this ad will be attached to
+     * @param params The {@link ViewGroup.LayoutParams} used to attach an ad to the ViewGroup, or null
+     */
+    private static void addToGroup(final BurstlyView burstlyView, final ViewGroup group, final ViewGroup.LayoutParams params) {
         if(params != null)
             group.addView(burstlyView, params);
         else
@@ -1,7 +1,9 @@
 package com.burstly.conveniencelayer;
 
 import android.app.Activity;
+import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.support.v4.app.Fragment;
 import android.view.View;
 import com.burstly.conveniencelayer.events.*;
@@ -9,8 +11,8 @@ import com.burstly.lib.ui.AdSize;
 import com.burstly.lib.ui.BurstlyView;
 import com.burstly.lib.ui.IBurstlyAdListener;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * The BurstlyBaseAd is the base convenience layer wrapper class for all ads.
@@ -35,6 +37,21 @@ public abstract class BurstlyBaseAd {
         Retrieved
     }
 
+    /**
+     * How {@link IBurstlyListener} callbacks are delivered
+     */
+    public enum Delivery {
+        /**
+         * Callbacks are made synchronously on the ui thread as the events occur
+         */
+        MainThread,
+
+        /**
+         * Callbacks are made in order on a shared low priority background thread
+         */
+        Background
+    }
+
     /**
      * Throw an exception if the current thread is not the UI thread
      */
@@ -59,14 +76,20 @@ public abstract class BurstlyBaseAd {
     protected Fragment mFragment;
 
     /**
-     * The {@link IBurstlyListener} which will receive callbacks when ad events occur
+     * The {@link IBurstlyListener}s which will receive callbacks when ad events occur
      */
-    protected final List<IBurstlyListener> mListeners = new ArrayList<IBurstlyListener>();
+    private final CopyOnWriteListenerList<IBurstlyListener> mListenerList = new CopyOnWriteListenerList<IBurstlyListener>(new IBurstlyListener[0]);
 
     /**
-     * The list of failed creatives that is built every time a request is made
+     * The {@link IBurstlyListener} which will receive callbacks when ad events occur.  Modifying it replaces the snapshot
+     * used for dispatch, and iterating it walks a snapshot.
      */
-    protected ArrayList<String> mFailedCreativesList;
+    protected final List<IBurstlyListener> mListeners = mListenerList;
+
+    /**
+     * The failed creatives recorded every time a request is made
+     */
+    final FailedNetworkRecorder mFailedCreatives = new FailedNetworkRecorder();
 
     /**
      * The current creative being shown.
@@ -93,6 +116,97 @@ public abstract class BurstlyBaseAd {
      */
     protected AdType mAdType;
 
+    /**
+     * Is the fragment or activity associated with this ad currently paused
+     */
+    private boolean mHostPaused;
+
+    /**
+     * Has the fragment or activity associated with this ad been destroyed
+     */
+    private boolean mDestroyed;
+
+    /**
+     * Has this ad registered its view name with {@link Burstly#acquireViewName(BurstlyBaseAd)}
+     */
+    private boolean mViewNameAcquired;
+
+    /**
+     * Is this ad handed to the {@link BurstlyPlacementRecycler} instead of being destroyed with its fragment
+     */
+    private boolean mRecyclable;
+
+    /**
+     * Time the current request to the server started, or 0 if no request is in progress
+     */
+    private long mRequestStartTime;
+
+    /**
+     * Is the {@link BurstlyView} for this ad created on first use by {@link #createBurstlyView()}
+     */
+    private boolean mLazyView;
+
+    /**
+     * Zone id and view name of a lazily created ad, used until its {@link BurstlyView} exists
+     */
+    private String mLazyZoneId;
+    private String mLazyViewName;
+
+    /**
+     * Tracks the visible fraction of the {@link BurstlyView}, null if viewport tracking is disabled
+     */
+    private ViewportTracker mViewportTracker;
+
+    /**
+     * Are refreshes suspended because the ad is scrolled out of view or covered
+     */
+    private boolean mViewportSuspended;
+
+    /**
+     * Time refreshes were suspended for leaving the viewport
+     */
+    private long mViewportSuspendedAt;
+
+    /**
+     * Was a coordinated refresh skipped while out of the viewport
+     */
+    private boolean mRefreshMissed;
+
+    /**
+     * Is refreshing this ad managed by a {@link BurstlyRefreshCoordinator} instead of the {@link BurstlyView}
+     */
+    private boolean mRefreshCoordinated;
+
+    /**
+     * Policy shared by automatically cached ads which don't set their own
+     */
+    private static IRetryPolicy sDefaultRetryPolicy = new ExponentialBackoffRetryPolicy();
+
+    /**
+     * Policy used by this ad, or null to use the default policy
+     */
+    private IRetryPolicy mRetryPolicy;
+
+    /**
+     * Number of consecutive failed cache attempts
+     */
+    private int mRetryAttempts;
+
+    /**
+     * Retries caching after a failure.  Created once and reused for every retry.
+     */
+    private TimerWheel.Timer mRetryTimer;
+
+    /**
+     * Task run by the retry timer
+     */
+    private final Runnable mRetryRunnable = new Runnable() {
+        public void run() {
+            if(!mDestroyed && !baseHasCachedAd() && !baseIsCachingAd())
+                baseCacheAd();
+        }
+    };
+
     /**
      * Listener receiving callbacks from the {@link BurstlyView}
      */
@@ -102,6 +216,7 @@ public abstract class BurstlyBaseAd {
          * @param network {@link String} loaded network name
          */
         public void failedToLoad(String network) {
+            BurstlyMetrics.recordNetworkFailure(getZoneId(), network);
             singleCreativeFailed(network);
         }
 
@@ -111,12 +226,15 @@ public abstract class BurstlyBaseAd {
          * @param isInterstitial {@code boolean} defines whether the ad will be loaded in a new Activity
          */
         public void didLoad(final String network, boolean isInterstitial) {
+            recordFill(network);
+
             boolean isRefresh = (mLastShow != null);
             if(isRefresh)
-                BurstlyBaseAd.this.onHide(new AdHideEvent(true, mLastShow));
+                BurstlyBaseAd.this.onHide(AdEventPool.obtainHideEvent(true, mLastShow));
 
-            mLastShow = new AdShowEvent(isInterstitial, network, mFailedCreativesList, isRefresh);
+            mLastShow = AdEventPool.obtainShowEvent(isInterstitial, network, mFailedCreatives, isRefresh);
             BurstlyBaseAd.this.onShow(mLastShow);
+            checkViewport();
         }
 
         /**
@@ -124,7 +242,11 @@ public abstract class BurstlyBaseAd {
          * @param network {@link String} loaded network name
          */
         public void didPrecacheAd(String network) {
-            mLastCache = new AdCacheEvent(network, mFailedCreativesList);
+            recordFill(network);
+
+            mLastCache = AdEventPool.obtainCacheEvent(network, mFailedCreatives);
+            mRetryAttempts = 0;
+            getRetryPolicy().onFilled(BurstlyBaseAd.this);
             onCache(mLastCache);
         }
 
@@ -132,6 +254,8 @@ public abstract class BurstlyBaseAd {
          * Beginning a request to the server
          */
         public void startRequestToServer() {
+            mRequestStartTime = SystemClock.elapsedRealtime();
+            BurstlyMetrics.recordRequest(getZoneId());
             requestStarted();
         }
 
@@ -140,6 +264,7 @@ public abstract class BurstlyBaseAd {
          * @param network {@link String} network which we are trying to load
          */
         public void attemptingToLoad(String network) {
+            BurstlyMetrics.recordAttempt(getZoneId(), network);
             tryToLoadCreative(network);
         }
 
@@ -148,7 +273,7 @@ public abstract class BurstlyBaseAd {
          * @param network {@link String} network which was clicked
          */
         public void adNetworkWasClicked(String network) {
-            BurstlyBaseAd.this.onClick(new AdClickEvent(network));
+            BurstlyBaseAd.this.onClick(AdEventPool.obtainClickEvent(network));
         }
 
         /**
@@ -156,16 +281,18 @@ public abstract class BurstlyBaseAd {
          * @param timeInMsec {@code int} minimum amount of time until a new request can be made
          */
         public void requestThrottled(int timeInMsec) {
+            BurstlyMetrics.recordThrottle(getZoneId());
             boolean precaching = (mCachingState == CachingState.Retrieving);
-            BurstlyBaseAd.this.onFail(new AdFailEvent(timeInMsec, precaching));
+            BurstlyBaseAd.this.onFail(AdEventPool.obtainThrottleEvent(timeInMsec, precaching));
         }
 
         /**
          * Failed to load any of the creatives in the assigned zones
          */
         public void failedToDisplayAds() {
+            BurstlyMetrics.recordNoFill(getZoneId(), mFailedCreatives.size());
             boolean precaching = (mCachingState == CachingState.Retrieving);
-            BurstlyBaseAd.this.onFail(new AdFailEvent(mFailedCreativesList, mBurstlyView, precaching));
+            BurstlyBaseAd.this.onFail(AdEventPool.obtainFailEvent(mFailedCreatives, mBurstlyView.getMinTimeUntilNextRequest(), precaching));
         }
 
         /**
@@ -173,7 +300,7 @@ public abstract class BurstlyBaseAd {
          * @param network {@link String} name of network which was dismissed
          */
         public void adNetworkDismissFullScreen(String network) {
-            BurstlyBaseAd.this.onDismissFullscreen(new AdDismissFullscreenEvent(mLastShow, false));
+            BurstlyBaseAd.this.onDismissFullscreen(AdEventPool.obtainDismissFullscreenEvent(mLastShow, false));
             mLastShow = null;
         }
 
@@ -182,7 +309,7 @@ public abstract class BurstlyBaseAd {
          * @param network {@link String} name of network which was dismissed
          */
         public void adNetworkPresentFullScreen(String network) {
-            BurstlyBaseAd.this.onPresentFullscreen(new AdPresentFullscreenEvent(false));
+            BurstlyBaseAd.this.onPresentFullscreen(AdEventPool.obtainPresentFullscreenEvent(false));
         }
 
         /**
@@ -190,14 +317,14 @@ public abstract class BurstlyBaseAd {
          * @param isFullscreen if true means new container size consumes full screen
          */
         public void onExpand(boolean isFullscreen) {
-            BurstlyBaseAd.this.onPresentFullscreen(new AdPresentFullscreenEvent(true));
+            BurstlyBaseAd.this.onPresentFullscreen(AdEventPool.obtainPresentFullscreenEvent(true));
         }
 
         /**
          * Expandable ad was collapsed
          */
         public void onCollapse() {
-            BurstlyBaseAd.this.onDismissFullscreen(new AdDismissFullscreenEvent(mLastShow, true));
+            BurstlyBaseAd.this.onDismissFullscreen(AdEventPool.obtainDismissFullscreenEvent(mLastShow, true));
         }
 
         /**
@@ -209,6 +336,19 @@ public abstract class BurstlyBaseAd {
         public void onShow() {}
     };
 
+    /**
+     * Records a filled request in {@link BurstlyMetrics}.  Only the first fill of a request is recorded, so showing an
+     * ad which was precached isn't counted as a second fill.
+     * @param network The network which filled the request
+     */
+    private void recordFill(final String network) {
+        if(mRequestStartTime == 0)
+            return;
+
+        BurstlyMetrics.recordFill(getZoneId(), network, SystemClock.elapsedRealtime() - mRequestStartTime, mFailedCreatives.size() + 1);
+        mRequestStartTime = 0;
+    }
+
     /* REMOVED BECAUSE IT REQUIRES API LEVEL 12
 
     /**
@@ -278,7 +418,10 @@ public abstract class BurstlyBaseAd {
          * Called by the convenience layer when the fragment associated with this ad is destroyed.
          */
         public void fragmentDestroyed(final Fragment fragment) {
-            destroyed();
+            if(mRecyclable)
+                BurstlyPlacementRecycler.recycle(BurstlyBaseAd.this);
+            else
+                destroyed();
         }
     };
 
@@ -288,7 +431,16 @@ public abstract class BurstlyBaseAd {
     protected void resumed() {
         throwIfNotOnMainThread();
 
+        mHostPaused = false;
+        mRetryAttempts = 0;
+
+        if(mBurstlyView == null)
+            return;
+
         mBurstlyView.onShowActivity();
+
+        if(mViewportSuspended)
+            mBurstlyView.setPaused(true);
     }
 
     /**
@@ -297,7 +449,13 @@ public abstract class BurstlyBaseAd {
     protected void paused() {
         throwIfNotOnMainThread();
 
-        mBurstlyView.onHideActivity();
+        mHostPaused = true;
+
+        if(mRetryTimer != null)
+            TimerWheel.get().cancel(mRetryTimer);
+
+        if(mBurstlyView != null)
+            mBurstlyView.onHideActivity();
 
         if(mCachingState == CachingState.Retrieving /*|| mCachingState == CachingState.CacheRequestThrottled*/)
             mCachingState = CachingState.Idle;
@@ -309,7 +467,90 @@ public abstract class BurstlyBaseAd {
     protected void destroyed() {
         throwIfNotOnMainThread();
 
-        mBurstlyView.destroy();
+        mDestroyed = true;
+        TimerWheel.get().cancelAll(this);
+        Burstly.placementDestroyed(this);
+
+        if(mViewNameAcquired) {
+            Burstly.releaseViewName(this);
+            mViewNameAcquired = false;
+        }
+
+        if(mViewportTracker != null) {
+            mViewportTracker.detach();
+            mViewportTracker = null;
+        }
+
+        if(mBurstlyView != null)
+            mBurstlyView.destroy();
+    }
+
+    /**
+     * Sets whether this ad is handed to the {@link BurstlyPlacementRecycler} when its fragment is destroyed
+     * @param recyclable true if the ad should be recycled
+     */
+    void setRecyclable(boolean recyclable) {
+        mRecyclable = recyclable;
+    }
+
+    /**
+     * Detaches this ad from its destroyed fragment without destroying its {@link BurstlyView} or any cached ad.  The ad
+     * stays paused until it is attached to a new fragment.  Listeners and viewport tracking set up by the old fragment
+     * are removed.
+     */
+    void detachFromHost() {
+        throwIfNotOnMainThread();
+
+        if(!mHostPaused)
+            paused();
+
+        if(mViewportSuspended)
+            resumeFromViewport(false);
+
+        if(mViewportTracker != null) {
+            mViewportTracker.detach();
+            mViewportTracker = null;
+        }
+
+        TimerWheel.get().cancelAll(this);
+        mRetryTimer = null;
+        mListenerList.clear();
+        mFragment = null;
+    }
+
+    /**
+     * Attaches a recycled ad to a new fragment.  The ad resumes when the fragment does.
+     * @param fragment The {@link Fragment} now associated with this ad
+     */
+    void attachToHost(final Fragment fragment) {
+        throwIfNotOnMainThread();
+
+        mFragment = fragment;
+        registerLifecycleListener();
+    }
+
+    /**
+     * Gets whether the {@link BurstlyView} for this ad has been created
+     * @return false if the ad was set up lazily and hasn't needed its view yet
+     */
+    boolean hasBurstlyView() {
+        return (mBurstlyView != null);
+    }
+
+    /**
+     * Gets whether the fragment or activity associated with this ad is paused
+     * @return true if paused, false otherwise
+     */
+    boolean isHostPaused() {
+        return mHostPaused;
+    }
+
+    /**
+     * Gets whether the fragment or activity associated with this ad has been destroyed
+     * @return true if destroyed, false otherwise
+     */
+    boolean isDestroyed() {
+        return mDestroyed;
     }
 
     /**
@@ -335,10 +576,51 @@ public abstract class BurstlyBaseAd {
     protected void setBurstlyView(final BurstlyView burstlyView, AdType type) {
         throwIfNotOnMainThread();
 
-        if(mBurstlyView != null)
+        if(mBurstlyView != null || mLazyView)
+            throw new RuntimeException("BurstlyView cannot be changed.");
+
+        attachBurstlyView(burstlyView, type);
+        registerLifecycleListener();
+    }
+
+    /**
+     * Sets up this ad without creating its {@link BurstlyView}.  The view is built by {@link #createBurstlyView()} the
+     * first time the ad is cached, shown or otherwise needs it.
+     * @param zoneId The zoneId for this ad
+     * @param viewName The name of this view which will be used to identify it in the logs
+     * @param type The general type of ad
+     */
+    protected void setLazyBurstlyView(final String zoneId, final String viewName, AdType type) {
+        throwIfNotOnMainThread();
+
+        if(mBurstlyView != null || mLazyView)
             throw new RuntimeException("BurstlyView cannot be changed.");
 
+        mLazyView = true;
+        mLazyZoneId = zoneId;
+        mLazyViewName = viewName;
+        mAdType = type;
+
+        registerLifecycleListener();
+    }
+
+    /**
+     * Builds the {@link BurstlyView} for an ad set up with {@link #setLazyBurstlyView(String, String, AdType)}.
+     * Subclasses supporting lazy creation must override this.
+     * @return A new {@link BurstlyView} configured with the zone and view name given to setLazyBurstlyView
+     */
+    protected BurstlyView createBurstlyView() {
+        throw new RuntimeException(getName() + " does not support lazy BurstlyView creation");
+    }
+
+    /**
+     * Attaches the listener to a new {@link BurstlyView} and applies integration mode
+     * @param burstlyView The {@link BurstlyView} instance used to access the BurstlySDK and show content
+     * @param type The general type of ad
+     */
+    private void attachBurstlyView(final BurstlyView burstlyView, AdType type) {
         mBurstlyView = burstlyView;
+        mAdType = type;
         mBurstlyView.setPublisherId(Burstly.getAppID());
         //mBurstlyView.addOnAttachStateChangeListener(mAttachListener); //Requires Android API level 12
         mBurstlyView.setBurstlyAdListener(mBurstlyAdListener);
@@ -364,6 +646,19 @@ public abstract class BurstlyBaseAd {
             Burstly.logD("Device is not a test device. Using default pub and zone.");
         }
 
+        Burstly.placementCreated(this);
+    }
+
+    /**
+     * Registers this ad's view name and registers for pause, resume and destroy callbacks from the activity or fragment
+     * associated with this ad
+     */
+    private void registerLifecycleListener() {
+        if(!mViewNameAcquired && getName() != null) {
+            Burstly.acquireViewName(this);
+            mViewNameAcquired = true;
+        }
+
         if(mActivity != null)
             Burstly.addActivityListener(mActivity, mActivityListener);
         else
@@ -375,6 +670,14 @@ public abstract class BurstlyBaseAd {
      * @return The {@link BurstlyView} used by this ad
      */
     protected BurstlyView getBurstlyView() {
+        if(mBurstlyView == null && mLazyView) {
+            Burstly.logD(mLazyViewName + ": creating BurstlyView on first use.");
+            attachBurstlyView(createBurstlyView(), mAdType);
+
+            if(mHostPaused)
+                mBurstlyView.onHideActivity();
+        }
+
         return mBurstlyView;
     }
 
@@ -383,8 +686,10 @@ public abstract class BurstlyBaseAd {
      * @param event {@link AdHideEvent} containing data on the ad that was hidden
      */
     protected void onHide(final AdHideEvent event) {
-        for(final IBurstlyListener listener:mListeners) {
-            listener.onHide(this, event);
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            listeners[i].onHide(this, event);
         }
 
         mLastShow = null;
@@ -395,8 +700,10 @@ public abstract class BurstlyBaseAd {
      * @param event {@link AdShowEvent} containing data on the ad shown
      */
     protected void onShow(final AdShowEvent event) {
-        for(final IBurstlyListener listener:mListeners) {
-            listener.onShow(this, event);
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            listeners[i].onShow(this, event);
         }
     }
 
@@ -407,8 +714,10 @@ public abstract class BurstlyBaseAd {
     protected void onCache(final AdCacheEvent event) {
         mCachingState =  CachingState.Retrieved;
 
-        for(final IBurstlyListener listener:mListeners) {
-            listener.onCache(this, event);
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            listeners[i].onCache(this, event);
         }
     }
 
@@ -417,8 +726,10 @@ public abstract class BurstlyBaseAd {
      * @param event {@link AdClickEvent} containing data on the ad that was clicked
      */
     protected void onClick(final AdClickEvent event) {
-        for(final IBurstlyListener listener:mListeners) {
-            listener.onClick(this, event);
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            listeners[i].onClick(this, event);
         }
     }
 
@@ -429,8 +740,18 @@ public abstract class BurstlyBaseAd {
     protected void onFail(final AdFailEvent event) {
         mCachingState = CachingState.Idle;
 
-        for(final IBurstlyListener listener:mListeners) {
-            listener.onFail(this, event);
+        dispatchFail(event);
+    }
+
+    /**
+     * Delivers a fail event to all of the {@link IBurstlyListener}s
+     * @param event {@link AdFailEvent} containing data on the failure
+     */
+    protected void dispatchFail(final AdFailEvent event) {
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            listeners[i].onFail(this, event);
         }
     }
 
@@ -439,8 +760,10 @@ public abstract class BurstlyBaseAd {
      * @param event {@link AdDismissFullscreenEvent} containing info on the dismissed ad
      */
     protected void onDismissFullscreen(final AdDismissFullscreenEvent event) {
-        for(final IBurstlyListener listener:mListeners) {
-            listener.onDismissFullscreen(this, event);
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            listeners[i].onDismissFullscreen(this, event);
         }
     }
 
@@ -449,8 +772,10 @@ public abstract class BurstlyBaseAd {
      * @param event {@link AdPresentFullscreenEvent} containing info on the ad which will display
      */
     protected void onPresentFullscreen(final AdPresentFullscreenEvent event) {
-        for(final IBurstlyListener listener:mListeners) {
-            listener.onPresentFullscreen(this, event);
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            listeners[i].onPresentFullscreen(this, event);
         }
     }
 
@@ -458,7 +783,8 @@ public abstract class BurstlyBaseAd {
      * Base functionality for a new request clears the failed creatives list
      */
     protected void requestStarted() {
-        mFailedCreativesList = new ArrayList<String>();
+        //events receive a pooled read-only copy of the failures, so the recorder is reused between requests
+        mFailedCreatives.clear();
     }
 
     /**
@@ -466,7 +792,7 @@ public abstract class BurstlyBaseAd {
      * @param network The network which failed to load
      */
     protected void singleCreativeFailed(final String network) {
-        mFailedCreativesList.add(network);
+        mFailedCreatives.add(network);
     }
 
     /**
@@ -484,7 +810,7 @@ public abstract class BurstlyBaseAd {
         throwIfNotOnMainThread();
 
         mCachingState = CachingState.Idle;
-        mBurstlyView.sendRequestForAd();
+        getBurstlyView().sendRequestForAd();
     }
 
     /**
@@ -499,17 +825,201 @@ public abstract class BurstlyBaseAd {
         else {
             throwIfNotOnMainThread();
             mCachingState = CachingState.Retrieving;
-            mBurstlyView.precacheAd();
+            getBurstlyView().precacheAd();
         }
         Burstly.logW("cacheAd end");
     }
 
+    /**
+     * Precaches a new ad even if one is already cached.  Used to replace a cached ad before it expires.
+     */
+    void baseRecacheAd() {
+        throwIfNotOnMainThread();
+
+        mCachingState = CachingState.Retrieving;
+        getBurstlyView().precacheAd();
+    }
+
+    /**
+     * Schedules another cache attempt after a failed precache, as decided by the retry policy
+     * @param event {@link AdFailEvent} containing data on the failure
+     */
+    protected void scheduleCacheRetry(final AdFailEvent event) {
+        final long delay = getRetryPolicy().getRetryDelay(this, event, ++mRetryAttempts);
+
+        if(mRetryTimer == null)
+            mRetryTimer = new TimerWheel.Timer(this, (mActivity != null) ? mActivity : mFragment, mRetryRunnable);
+
+        TimerWheel.get().cancel(mRetryTimer);
+
+        if(delay < 0) {
+            Burstly.logW(getName() + ": Giving up on caching after " + (mRetryAttempts - 1) + " attempts.");
+            return;
+        }
+
+        Burstly.logD(getName() + ": Retrying cache in " + delay + "ms.");
+        TimerWheel.get().schedule(mRetryTimer, delay);
+    }
+
+    /**
+     * Sets the policy used when all ads which don't set their own retry after a failed automatic cache
+     * @param policy The {@link IRetryPolicy} to use
+     */
+    public static void setDefaultRetryPolicy(final IRetryPolicy policy) {
+        if(policy == null)
+            throw new IllegalArgumentException("Retry policy must not be null");
+
+        sDefaultRetryPolicy = policy;
+    }
+
+    /**
+     * Sets the policy used when this ad retries after a failed automatic cache
+     * @param policy The {@link IRetryPolicy} to use, or null to use the default policy
+     */
+    public void setRetryPolicy(final IRetryPolicy policy) {
+        mRetryPolicy = policy;
+    }
+
+    /**
+     * Gets the policy used when this ad retries after a failed automatic cache
+     * @return The {@link IRetryPolicy} for this ad
+     */
+    public IRetryPolicy getRetryPolicy() {
+        return (mRetryPolicy != null) ? mRetryPolicy : sDefaultRetryPolicy;
+    }
+
+    /**
+     * Requests a new ad to replace the one being shown.  Used when refreshing is managed by a
+     * {@link BurstlyRefreshCoordinator}.
+     */
+    void baseRefreshAd() {
+        throwIfNotOnMainThread();
+
+        mCachingState = CachingState.Idle;
+        getBurstlyView().sendRequestForAd();
+    }
+
+    /**
+     * Suspends refreshing while less than a fraction of the ad is visible, for example while it is scrolled out of a
+     * ScrollView or covered.  When enough of the ad is visible again refreshing resumes, and if a refresh came due while
+     * it was out of view a new ad is shown immediately.
+     * @param fraction The fraction of the ad, 0.0f - 1.0f, which must be visible.  0 disables viewport tracking.
+     */
+    public void setMinVisibleFraction(float fraction) {
+        throwIfNotOnMainThread();
+
+        if(fraction < 0.0f || fraction > 1.0f)
+            throw new IllegalArgumentException("Visible fraction must be between 0 and 1");
+
+        if(mViewportTracker != null) {
+            mViewportTracker.detach();
+            mViewportTracker = null;
+        }
+
+        if(fraction > 0.0f) {
+            mViewportTracker = new ViewportTracker(this, getBurstlyView(), fraction);
+        }
+        else if(mViewportSuspended) {
+            resumeFromViewport(false);
+        }
+    }
+
+    /**
+     * Gets whether refreshing is suspended because the ad isn't visible enough
+     * @return true if suspended
+     */
+    boolean isViewportSuspended() {
+        return mViewportSuspended;
+    }
+
+    /**
+     * Called by the {@link ViewportTracker} when the ad enters or leaves the viewport
+     * @param inViewport true if enough of the ad is visible
+     */
+    void viewportChanged(boolean inViewport) {
+        if(mDestroyed)
+            return;
+
+        if(!inViewport && !mViewportSuspended && canSuspendForViewport()) {
+            Burstly.logD(getName() + ": out of view, suspending refresh.");
+
+            mViewportSuspended = true;
+            mViewportSuspendedAt = SystemClock.elapsedRealtime();
+            mBurstlyView.setPaused(true);
+        }
+        else if(inViewport && mViewportSuspended) {
+            resumeFromViewport(true);
+        }
+    }
+
+    /**
+     * Suspends refreshing if the ad is already out of the viewport when it becomes able to suspend.  The tracker only
+     * reports changes, so an ad which was out of view before it showed anything would otherwise never be suspended.
+     */
+    void checkViewport() {
+        if(mViewportTracker != null && !mViewportTracker.isInViewport())
+            viewportChanged(false);
+    }
+
+    /**
+     * Gets whether the ad is currently showing a creative which would be refreshed
+     * @return true if refreshes can be suspended while the ad is out of view
+     */
+    protected boolean canSuspendForViewport() {
+        return mLastShow != null;
+    }
+
+    /**
+     * Resumes refreshing after being suspended for leaving the viewport
+     * @param warmShow If true and a refresh came due while suspended, a new ad is requested immediately
+     */
+    void resumeFromViewport(boolean warmShow) {
+        final long interval = mBurstlyView.getDefaultSessionLife() * 1000L;
+        final boolean refreshDue = mRefreshMissed || (interval > 0 && SystemClock.elapsedRealtime() - mViewportSuspendedAt >= interval);
+
+        mViewportSuspended = false;
+        mRefreshMissed = false;
+
+        if(mHostPaused)
+            return;
+
+        mBurstlyView.setPaused(false);
+
+        if(warmShow && refreshDue) {
+            Burstly.logD(getName() + ": back in view, refreshing.");
+            baseRefreshAd();
+        }
+    }
+
+    /**
+     * Called by a {@link BurstlyRefreshCoordinator} when it skips a refresh because the ad is out of view
+     */
+    void refreshMissed() {
+        mRefreshMissed = true;
+    }
+
+    /**
+     * Sets whether refreshing this ad is managed by a {@link BurstlyRefreshCoordinator}
+     * @param coordinated true if the coordinator refreshes this ad
+     */
+    void setRefreshCoordinated(boolean coordinated) {
+        mRefreshCoordinated = coordinated;
+    }
+
+    /**
+     * Gets whether refreshing this ad is managed by a {@link BurstlyRefreshCoordinator}
+     * @return true if the coordinator refreshes this ad
+     */
+    boolean isRefreshCoordinated() {
+        return mRefreshCoordinated;
+    }
+
     /**
      * Gets whether there is a cached ad ready to be shown
      * @return true if a cached ad is available to be shown. False otherwise.
      */
     protected boolean baseHasCachedAd() {
-        return (mCachingState == CachingState.Retrieved && !mBurstlyView.isCachedAdExpired());
+        return (mCachingState == CachingState.Retrieved && mBurstlyView != null && !mBurstlyView.isCachedAdExpired());
     }
 
     /**
@@ -521,19 +1031,60 @@ public abstract class BurstlyBaseAd {
     }
 
     /**
-     * Add a {@link IBurstlyListener} which will receive callbacks when ad events occur
+     * Add a {@link IBurstlyListener} which will receive callbacks on the ui thread when ad events occur
      * @param listener A {@link IBurstlyListener} which will receive callbacks when ad events occur
      */
-    public synchronized void addBurstlyListener(final IBurstlyListener listener) {
-        mListeners.add(listener);
+    public void addBurstlyListener(final IBurstlyListener listener) {
+        mListenerList.add(listener);
     }
 
     /**
-     * Removes a {@link IBurstlyListener} from the list of liseteners
+     * Add a {@link IBurstlyListener} which will receive callbacks when ad events occur.  Listeners delivered to in the
+     * background must not call methods on the ad which are required to be called from the ui thread.
+     * @param listener A {@link IBurstlyListener} which will receive callbacks when ad events occur
+     * @param delivery The {@link Delivery} mode used to deliver callbacks to this listener
+     */
+    public void addBurstlyListener(final IBurstlyListener listener, final Delivery delivery) {
+        if(delivery == Delivery.Background)
+            addBurstlyListener(listener, ExecutorBurstlyListener.getBackgroundExecutor());
+        else
+            addBurstlyListener(listener);
+    }
+
+    /**
+     * Add a {@link IBurstlyListener} whose callbacks will be run by an {@link Executor} when ad events occur
+     * @param listener A {@link IBurstlyListener} which will receive callbacks when ad events occur
+     * @param executor The {@link Executor} used to deliver callbacks to this listener
+     */
+    public void addBurstlyListener(final IBurstlyListener listener, final Executor executor) {
+        mListenerList.add(new ExecutorBurstlyListener(listener, executor));
+    }
+
+    /**
+     * Add a {@link IBurstlyListener} whose callbacks will be posted to a {@link Handler} when ad events occur
+     * @param listener A {@link IBurstlyListener} which will receive callbacks when ad events occur
+     * @param handler The {@link Handler} used to deliver callbacks to this listener
+     */
+    public void addBurstlyListener(final IBurstlyListener listener, final Handler handler) {
+        addBurstlyListener(listener, ExecutorBurstlyListener.fromHandler(handler));
+    }
+
+    /**
+     * Removes a {@link IBurstlyListener} from the list of liseteners regardless of how it is being delivered to
      * @param listener {@link IBurstlyListener} to be removed 
      */
-    public synchronized void removeBurstlyListener(final IBurstlyListener listener) {
-        mListeners.remove(listener);
+    public void removeBurstlyListener(final IBurstlyListener listener) {
+        if(mListenerList.remove(listener))
+            return;
+
+        final IBurstlyListener[] listeners = mListenerList.snapshot();
+
+        for(int i = 0; i < listeners.length; i++) {
+            if(listeners[i] instanceof ExecutorBurstlyListener && ((ExecutorBurstlyListener)listeners[i]).getListener() == listener) {
+                mListenerList.remove(listeners[i]);
+                return;
+            }
+        }
     }
 
     /**
@@ -541,7 +1092,7 @@ public abstract class BurstlyBaseAd {
      * @return The name of this ad space
      */
     public String getName() {
-        return mBurstlyView.getBurstlyViewId();
+        return (mBurstlyView != null) ? mBurstlyView.getBurstlyViewId() : mLazyViewName;
     }
 
     /**
@@ -549,7 +1100,7 @@ public abstract class BurstlyBaseAd {
      * @return The App Id used in requests by this ad
      */
     public String getAppId() {
-        return mBurstlyView.getPublisherId();
+        return (mBurstlyView != null) ? mBurstlyView.getPublisherId() : Burstly.getAppID();
     }
 
     /**
@@ -557,7 +1108,7 @@ public abstract class BurstlyBaseAd {
      * @return The Zone Id used in requests by this ad
      */
     public String getZoneId() {
-        return mBurstlyView.getZoneId();
+        return (mBurstlyView != null) ? mBurstlyView.getZoneId() : mLazyZoneId;
     }
 
     /**
@@ -566,7 +1117,7 @@ public abstract class BurstlyBaseAd {
      * @param targetingParams String containing comma delimited list of custom targeting key value pairs
      */
     public void setTargetingParameters(final String targetingParams) {
-        mBurstlyView.setPubTargetingParams(targetingParams);
+        getBurstlyView().setPubTargetingParams(targetingParams);
     }
 
     /**
@@ -574,7 +1125,7 @@ public abstract class BurstlyBaseAd {
      * @return String containing comma delimited list of custom targeting key value pairs
      */
     public String getTargetingParameters() {
-        return mBurstlyView.getPubTargetingParams();
+        return getBurstlyView().getPubTargetingParams();
     }
 
     /**
@@ -582,7 +1133,7 @@ public abstract class BurstlyBaseAd {
      * @param adParameters String containing comma delimited list of key value pairs which are passed as parameters into ads.
      */
     public void setAdParameters(final String adParameters) {
-        mBurstlyView.setCrParms(adParameters);
+        getBurstlyView().setCrParms(adParameters);
     }
 
     /**
@@ -590,6 +1141,6 @@ public abstract class BurstlyBaseAd {
      * @return String containing comma delimited list of key value pairs which are passed as parameters into ads
      */
     public String getAdParameters() {
-        return mBurstlyView.getCrParms();
+        return getBurstlyView().getCrParms();
     }
 }
@@ -0,0 +1,330 @@
+package com.burstly.conveniencelayer;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.support.v4.app.Fragment;
+import com.burstly.conveniencelayer.events.AdCacheEvent;
+import com.burstly.conveniencelayer.events.AdFailEvent;
+import com.burstly.conveniencelayer.events.AdShowEvent;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * BurstlyCacheScheduler keeps precached ads warm by replacing them shortly before they expire.  Each registered
+ * {@link ICacheable} placement is tracked from the time its ad is cached.  When a placement gets within the refresh
+ * lead time of its cache lifetime it is precached again.  Placements due within the coalescing window of each other
+ * are refreshed together so the radio is woken as few times as possible.
+ *
+ * Placements whose activity or fragment is paused are skipped without scheduling another pass, and a single pass is
+ * scheduled when their host resumes, so a backgrounded app isn't woken.  All methods must be called from the ui thread.
+ */
+public class BurstlyCacheScheduler {
+    /**
+     * Defaults
+     */
+    public static final long DEFAULT_CACHE_LIFETIME = 15 * 60 * 1000;
+    public static final long DEFAULT_REFRESH_LEAD = 60 * 1000;
+    public static final long DEFAULT_COALESCE_WINDOW = 30 * 1000;
+
+    /**
+     * Tracking data for a single placement.  While a due placement's host is paused the entry listens for the host to
+     * resume.
+     */
+    private final class Entry implements IActivityListener, IFragmentListener {
+        /**
+         * How long a cached ad for this placement remains valid
+         */
+        final long mLifetime;
+
+        /**
+         * Time the current ad was cached or 0 if no ad is cached
+         */
+        long mCachedAt;
+
+        /**
+         * Is the entry waiting for its host to resume
+         */
+        boolean mWaitingForResume;
+
+        Entry(long lifetime) {
+            mLifetime = lifetime;
+        }
+
+        /**
+         * Start listening for the placement's host to resume
+         * @param ad The placement
+         */
+        void waitForResume(final BurstlyBaseAd ad) {
+            if(mWaitingForResume)
+                return;
+
+            mWaitingForResume = true;
+
+            if(ad.mFragment != null)
+                Burstly.addFragmentListener(ad.mFragment, this);
+            else
+                Burstly.addActivityListener(ad.mActivity, this);
+        }
+
+        /**
+         * Stop listening for the host to resume
+         */
+        void stopWaiting() {
+            if(!mWaitingForResume)
+                return;
+
+            mWaitingForResume = false;
+            Burstly.removeActivityListener(this);
+            Burstly.removeFragmentListener(this);
+        }
+
+        /**
+         * The host resumed, so run a pass once the placement has resumed too
+         */
+        private void hostResumed() {
+            stopWaiting();
+            schedule(SystemClock.elapsedRealtime());
+        }
+
+        public void activityPaused(final Activity activity) {
+        }
+
+        public void activityResumed(final Activity activity) {
+            hostResumed();
+        }
+
+        public void activityDestroyed(final Activity activity) {
+            mWaitingForResume = false;
+        }
+
+        public void fragmentPaused(final Fragment fragment) {
+        }
+
+        public void fragmentResumed(final Fragment fragment) {
+            hostResumed();
+        }
+
+        public void fragmentDestroyed(final Fragment fragment) {
+            mWaitingForResume = false;
+        }
+    }
+
+    /**
+     * Registered placements
+     */
+    private final WeakHashMap<BurstlyBaseAd, Entry> mEntries = new WeakHashMap<BurstlyBaseAd, Entry>();
+
+    /**
+     * Time before expiry at which a placement is refreshed
+     */
+    private final long mRefreshLead;
+
+    /**
+     * Placements due within this window of each other are refreshed together
+     */
+    private final long mCoalesceWindow;
+
+    /**
+     * Timer running the refresh pass
+     */
+    private final TimerWheel.Timer mPassTimer;
+
+    /**
+     * Time the next refresh pass is scheduled for, or 0 if none is scheduled
+     */
+    private long mNextPass;
+
+    /**
+     * Scratch list reused by each refresh pass
+     */
+    private final ArrayList<BurstlyBaseAd> mDue = new ArrayList<BurstlyBaseAd>();
+
+    /**
+     * Runs a refresh pass
+     */
+    private final Runnable mPassRunnable = new Runnable() {
+        public void run() {
+            mNextPass = 0;
+            refreshDue();
+        }
+    };
+
+    /**
+     * Listener tracking cache state for every registered placement
+     */
+    private final IBurstlyListener mCacheListener = new BurstlyListenerAdapter() {
+        @Override
+        public void onCache(final BurstlyBaseAd ad, final AdCacheEvent event) {
+            final Entry entry = mEntries.get(ad);
+
+            //an already cached ad is reported again when cacheAd is called, so keep the original cache time
+            if(entry != null && entry.mCachedAt == 0) {
+                entry.mCachedAt = SystemClock.elapsedRealtime();
+                schedule(entry.mCachedAt + entry.mLifetime - mRefreshLead);
+            }
+        }
+
+        @Override
+        public void onShow(final BurstlyBaseAd ad, final AdShowEvent event) {
+            final Entry entry = mEntries.get(ad);
+
+            if(entry != null)
+                entry.mCachedAt = 0;
+        }
+
+        @Override
+        public void onFail(final BurstlyBaseAd ad, final AdFailEvent event) {
+            final Entry entry = mEntries.get(ad);
+
+            if(entry != null && event.wasFailureResultOfCachingAttempt())
+                entry.mCachedAt = 0;
+        }
+    };
+
+    /**
+     * Constructs a scheduler with the default refresh lead time and coalescing window
+     */
+    public BurstlyCacheScheduler() {
+        this(DEFAULT_REFRESH_LEAD, DEFAULT_COALESCE_WINDOW);
+    }
+
+    /**
+     * Constructs a scheduler
+     * @param refreshLead Time in ms before a cached ad expires that it will be replaced
+     * @param coalesceWindow Placements due within this many ms of each other are refreshed together
+     */
+    public BurstlyCacheScheduler(long refreshLead, long coalesceWindow) {
+        mRefreshLead = refreshLead;
+        mCoalesceWindow = coalesceWindow;
+        mPassTimer = new TimerWheel.Timer(this, null, mPassRunnable);
+    }
+
+    /**
+     * Start keeping a placement's cache warm using the default cache lifetime
+     * @param placement A {@link BurstlyInterstitial} or {@link BurstlyAnimatedBanner}
+     */
+    public void register(final ICacheable placement) {
+        register(placement, DEFAULT_CACHE_LIFETIME);
+    }
+
+    /**
+     * Start keeping a placement's cache warm
+     * @param placement A {@link BurstlyInterstitial} or {@link BurstlyAnimatedBanner}
+     * @param cacheLifetime Time in ms a cached ad for this placement stays valid.  This should match the zone's
+     *                      expiration setting in the burstly.com UI.
+     */
+    public void register(final ICacheable placement, long cacheLifetime) {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
+        if(!(placement instanceof BurstlyBaseAd))
+            throw new IllegalArgumentException("Only Burstly convenience layer ads can be scheduled");
+
+        if(cacheLifetime <= mRefreshLead)
+            throw new IllegalArgumentException("Cache lifetime must be longer than the refresh lead time");
+
+        final BurstlyBaseAd ad = (BurstlyBaseAd)placement;
+
+        if(mEntries.containsKey(ad))
+            return;
+
+        final Entry entry = new Entry(cacheLifetime);
+        mEntries.put(ad, entry);
+        ad.addBurstlyListener(mCacheListener);
+
+        if(placement.hasCachedAd()) {
+            entry.mCachedAt = SystemClock.elapsedRealtime();
+            schedule(entry.mCachedAt + cacheLifetime - mRefreshLead);
+        }
+    }
+
+    /**
+     * Stop keeping a placement's cache warm
+     * @param placement A placement previously passed to register
+     */
+    public void unregister(final ICacheable placement) {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
+        if(placement instanceof BurstlyBaseAd) {
+            final BurstlyBaseAd ad = (BurstlyBaseAd)placement;
+
+            final Entry entry = mEntries.remove(ad);
+
+            if(entry != null) {
+                entry.stopWaiting();
+                ad.removeBurstlyListener(mCacheListener);
+            }
+        }
+    }
+
+    /**
+     * Make sure a refresh pass runs no later than the given time
+     * @param time Time based on {@link SystemClock#elapsedRealtime()}
+     */
+    private void schedule(long time) {
+        if(mNextPass != 0 && mNextPass <= time)
+            return;
+
+        final long delay = Math.max(0, time - SystemClock.elapsedRealtime());
+
+        TimerWheel.get().schedule(mPassTimer, delay);
+        mNextPass = time;
+    }
+
+    /**
+     * Refresh every placement due within the coalescing window and schedule the next pass
+     */
+    private void refreshDue() {
+        final long now = SystemClock.elapsedRealtime();
+        final long horizon = now + mCoalesceWindow;
+        long next = Long.MAX_VALUE;
+
+        for(final Map.Entry<BurstlyBaseAd, Entry> mapEntry : mEntries.entrySet()) {
+            final BurstlyBaseAd ad = mapEntry.getKey();
+            final Entry entry = mapEntry.getValue();
+
+            if(ad == null || ad.isDestroyed() || entry.mCachedAt == 0)
+                continue;
+
+            final long due = entry.mCachedAt + entry.mLifetime - mRefreshLead;
+
+            if(due > horizon) {
+                next = Math.min(next, due);
+            }
+            else if(ad.isHostPaused()) {
+                //don't wake a paused app.  A pass is scheduled when the host resumes
+                entry.waitForResume(ad);
+            }
+            else if(ad.isViewportSuspended() || ad.baseIsCachingAd() || isShowing(ad)) {
+                //check again later
+                next = Math.min(next, now + mCoalesceWindow);
+            }
+            else {
+                mDue.add(ad);
+            }
+        }
+
+        for(int i = 0; i < mDue.size(); i++) {
+            final BurstlyBaseAd ad = mDue.get(i);
+            Burstly.logD(ad.getName() + ": refreshing cached ad before it expires.");
+
+            mEntries.get(ad).mCachedAt = 0;
+            ad.baseRecacheAd();
+        }
+
+        mDue.clear();
+
+        if(next != Long.MAX_VALUE)
+            schedule(next);
+    }
+
+    /**
+     * Gets whether a placement is currently displaying an ad, in which case it can't be precached
+     * @param ad The placement
+     * @return true if the ad is on screen
+     */
+    private static boolean isShowing(final BurstlyBaseAd ad) {
+        return (ad instanceof BurstlyAnimatedBanner) && ((BurstlyAnimatedBanner)ad).getState() != BurstlyAnimatedBanner.State.Offscreen;
+    }
+}
@@ -0,0 +1,861 @@
+package com.burstly.conveniencelayer;
+
+import com.burstly.conveniencelayer.events.*;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BurstlyEventJournal is an {@link IBurstlyListener} which records show, fail, cache and click events to an append
+ * only binary journal on disk so they can be uploaded later.  Recording an event only stores a reference to it in a
+ * preallocated ring buffer.  Events are serialized in batches into a memory mapped file on a background thread owned
+ * by the journal, so slow listeners elsewhere can't hold up journaling.
+ *
+ * Add the journal to each ad you want recorded using {@link BurstlyBaseAd#addBurstlyListener(IBurstlyListener)}.  To
+ * upload, read the journal using {@link #openReader()}, which first writes any buffered events, and once the upload
+ * succeeds pass the reader to {@link #discard(Reader)} to remove the uploaded entries.  Call {@link #close()} when the
+ * journal is no longer needed.
+ *
+ * Journal layout: a 16 byte header (magic, version, committed length, entry count) followed by entries.  Each entry is
+ * a type byte, a timestamp, the ad name and network as length prefixed UTF-8 strings, and type specific fields.
+ */
+public class BurstlyEventJournal extends BurstlyListenerAdapter implements Closeable {
+    /**
+     * The type of event stored in an entry
+     */
+    public enum EntryType {
+        Show,
+        Fail,
+        Cache,
+        Click
+    }
+
+    /**
+     * A single journal entry
+     */
+    public static final class Entry {
+        private final EntryType mType;
+        private final long mTimestamp;
+        private final String mAdName;
+        private final String mNetwork;
+        private final int mFlags;
+        private final int mMinTimeUntilNextRequest;
+        private final List<String> mFailedCreativeNetworks;
+
+        private Entry(final EntryType type, long timestamp, final String adName, final String network, int flags, int minTime, final List<String> failed) {
+            mType = type;
+            mTimestamp = timestamp;
+            mAdName = adName;
+            mNetwork = network;
+            mFlags = flags;
+            mMinTimeUntilNextRequest = minTime;
+            mFailedCreativeNetworks = failed;
+        }
+
+        /**
+         * Gets the type of event recorded
+         * @return The {@link EntryType} of the event
+         */
+        public EntryType getType() {
+            return mType;
+        }
+
+        /**
+         * Gets the time the event was recorded
+         * @return Time in ms since the epoch
+         */
+        public long getTimestamp() {
+            return mTimestamp;
+        }
+
+        /**
+         * Gets the name of the ad the event occurred on
+         * @return The name of the ad
+         */
+        public String getAdName() {
+            return mAdName;
+        }
+
+        /**
+         * Gets the network which was shown, cached or clicked.  null for failures.
+         * @return The network name
+         */
+        public String getNetwork() {
+            return mNetwork;
+        }
+
+        /**
+         * For show events, whether the ad was shown in a new {@link android.app.Activity}
+         * @return true if the ad was an activity interstitial
+         */
+        public boolean isActivityInterstitial() {
+            return mType == EntryType.Show && (mFlags & FLAG_INTERSTITIAL) != 0;
+        }
+
+        /**
+         * For show events, whether the ad was shown as the result of a refresh
+         * @return true if the ad was a refresh
+         */
+        public boolean isRefreshedAd() {
+            return mType == EntryType.Show && (mFlags & FLAG_REFRESH) != 0;
+        }
+
+        /**
+         * For fail events, whether the request was throttled
+         * @return true if the request was throttled
+         */
+        public boolean wasRequestThrottled() {
+            return mType == EntryType.Fail && (mFlags & FLAG_THROTTLED) != 0;
+        }
+
+        /**
+         * For fail events, whether the failure was the result of trying to precache an ad
+         * @return true if the failure was the result of a precache attempt
+         */
+        public boolean wasFailureResultOfCachingAttempt() {
+            return mType == EntryType.Fail && (mFlags & FLAG_PRECACHE) != 0;
+        }
+
+        /**
+         * For fail events, the minimum amount of time in ms until the next request could be made
+         * @return time in ms
+         */
+        public int getMinTimeUntilNextRequest() {
+            return mMinTimeUntilNextRequest;
+        }
+
+        /**
+         * Gets the networks which failed before the event occurred
+         * @return The list of failed networks, or null if none were recorded
+         */
+        public List<String> getFailedCreativesNetworks() {
+            return mFailedCreativeNetworks;
+        }
+    }
+
+    /**
+     * Reads the entries committed to a journal at the time the reader was opened
+     */
+    public static final class Reader {
+        /**
+         * The committed journal data
+         */
+        private final ByteBuffer mBuffer;
+
+        /**
+         * The journal offset the reader stops at
+         */
+        private final int mEnd;
+
+        /**
+         * Identifies the journal generation the reader was opened on
+         */
+        private final int mGeneration;
+
+        private Reader(final ByteBuffer buffer, int end, int generation) {
+            mBuffer = buffer;
+            mEnd = end;
+            mGeneration = generation;
+        }
+
+        /**
+         * Gets whether there are more entries to read
+         * @return true if there is another entry
+         */
+        public boolean hasNext() {
+            return mBuffer.position() < mEnd;
+        }
+
+        /**
+         * Reads the next entry
+         * @return the next {@link Entry}
+         */
+        public Entry next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+
+            final EntryType type = ENTRY_TYPES[mBuffer.get()];
+            final long timestamp = mBuffer.getLong();
+            final String name = readString(mBuffer);
+            final String network = readString(mBuffer);
+            int flags = 0;
+            int minTime = 0;
+            List<String> failed = null;
+
+            if(type == EntryType.Show || type == EntryType.Fail)
+                flags = mBuffer.get();
+
+            if(type == EntryType.Fail)
+                minTime = mBuffer.getInt();
+
+            if(type != EntryType.Click)
+                failed = readStringList(mBuffer);
+
+            return new Entry(type, timestamp, name, network, flags, minTime, failed);
+        }
+    }
+
+    /**
+     * Journal header
+     */
+    private static final int MAGIC = 0x42434C4A;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int OFFSET_END = 8;
+    private static final int OFFSET_COUNT = 12;
+
+    /**
+     * Entry flags
+     */
+    private static final int FLAG_INTERSTITIAL = 1;
+    private static final int FLAG_REFRESH = 2;
+    private static final int FLAG_THROTTLED = 1;
+    private static final int FLAG_PRECACHE = 2;
+
+    private static final EntryType[] ENTRY_TYPES = EntryType.values();
+
+    /**
+     * Default sizes
+     */
+    public static final int DEFAULT_RING_SIZE = 256;
+    public static final int DEFAULT_BATCH_SIZE = 32;
+    public static final int DEFAULT_JOURNAL_BYTES = 256 * 1024;
+
+    /**
+     * The journal file
+     */
+    private final File mFile;
+
+    /**
+     * The size of the journal file in bytes
+     */
+    private final int mJournalBytes;
+
+    /**
+     * Number of buffered events which triggers a background write
+     */
+    private final int mBatchSize;
+
+    /**
+     * Single thread executor used for writing batches.  Owned by the journal and shut down by {@link #close()}.
+     */
+    private final ExecutorService mExecutor;
+
+    /**
+     * Set once the journal is closed
+     */
+    private volatile boolean mClosed;
+
+    /**
+     * Ring buffer slots.  Written by the recording thread between mHead and mTail, read and cleared by the writer.
+     */
+    private final int mMask;
+    private final EntryType[] mTypes;
+    private final long[] mTimes;
+    private final String[] mNames;
+    private final AdEvent[] mEvents;
+
+    /**
+     * Ring buffer positions
+     */
+    private volatile long mHead;
+    private volatile long mTail;
+
+    /**
+     * Lock taken when recording so events from several threads can be recorded.  The writer never takes it.
+     */
+    private final Object mRecordLock = new Object();
+
+    /**
+     * Set while a batch write is queued
+     */
+    private final AtomicBoolean mWriteScheduled = new AtomicBoolean(false);
+
+    /**
+     * Number of events dropped because the ring buffer or journal was full
+     */
+    private final AtomicInteger mDroppedCount = new AtomicInteger(0);
+
+    /**
+     * Incremented each time entries are discarded so stale readers can be detected
+     */
+    private volatile int mGeneration;
+
+    /**
+     * The mapped journal.  Only accessed from the executor.
+     */
+    private MappedByteBuffer mJournal;
+
+    /**
+     * Writes all buffered events to the journal
+     */
+    private final Runnable mWriteRunnable = new Runnable() {
+        public void run() {
+            mWriteScheduled.set(false);
+
+            //writes queued after close are skipped so they don't reopen the journal
+            if(!mClosed)
+                writeBatch();
+        }
+    };
+
+    /**
+     * Constructs a journal with the default sizes
+     * @param file The file the journal is stored in
+     */
+    public BurstlyEventJournal(final File file) {
+        this(file, DEFAULT_RING_SIZE, DEFAULT_BATCH_SIZE, DEFAULT_JOURNAL_BYTES);
+    }
+
+    /**
+     * Constructs a journal
+     * @param file The file the journal is stored in
+     * @param ringSize The number of events which can be buffered before events are dropped.  Rounded up to a power of 2.
+     * @param batchSize The number of buffered events which triggers a write to the journal
+     * @param journalBytes The maximum size of the journal file
+     */
+    public BurstlyEventJournal(final File file, int ringSize, int batchSize, int journalBytes) {
+        if(ringSize <= 0 || batchSize <= 0 || journalBytes <= HEADER_SIZE)
+            throw new IllegalArgumentException("Invalid journal sizes");
+
+        int capacity = 1;
+
+        while(capacity < ringSize)
+            capacity <<= 1;
+
+        mFile = file;
+        mJournalBytes = journalBytes;
+        mBatchSize = Math.min(batchSize, capacity);
+        mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "Burstly Event Journal");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+
+        mMask = capacity - 1;
+        mTypes = new EntryType[capacity];
+        mTimes = new long[capacity];
+        mNames = new String[capacity];
+        mEvents = new AdEvent[capacity];
+    }
+
+    @Override
+    public void onShow(final BurstlyBaseAd ad, final AdShowEvent event) {
+        record(EntryType.Show, ad, event);
+    }
+
+    @Override
+    public void onFail(final BurstlyBaseAd ad, final AdFailEvent event) {
+        record(EntryType.Fail, ad, event);
+    }
+
+    @Override
+    public void onCache(final BurstlyBaseAd ad, final AdCacheEvent event) {
+        record(EntryType.Cache, ad, event);
+    }
+
+    @Override
+    public void onClick(final BurstlyBaseAd ad, final AdClickEvent event) {
+        record(EntryType.Click, ad, event);
+    }
+
+    /**
+     * Stores an event in the ring buffer and schedules a write once a full batch is buffered
+     * @param type The type of event
+     * @param ad The ad the event occurred on
+     * @param event The event
+     */
+    private void record(final EntryType type, final BurstlyBaseAd ad, final AdEvent event) {
+        if(mClosed)
+            return;
+
+        final long buffered;
+
+        synchronized(mRecordLock) {
+            final long tail = mTail;
+
+            if(tail - mHead > mMask) {
+                mDroppedCount.incrementAndGet();
+                return;
+            }
+
+            final int index = (int)(tail & mMask);
+            mTypes[index] = type;
+            mTimes[index] = System.currentTimeMillis();
+            mNames[index] = ad.getName();
+            mEvents[index] = event;
+
+            mTail = tail + 1;
+            buffered = tail + 1 - mHead;
+        }
+
+        if(buffered >= mBatchSize)
+            scheduleWrite();
+    }
+
+    /**
+     * Writes all buffered events to the journal, blocking until they have been written
+     */
+    public void flush() {
+        if(mClosed)
+            return;
+
+        final Future<?> write;
+
+        try {
+            write = mExecutor.submit(mWriteRunnable);
+        }
+        catch(RejectedExecutionException e) {
+            return;
+        }
+
+        await(write);
+    }
+
+    /**
+     * Writes any buffered events, then unmaps the journal and stops its background thread.  Events recorded after the
+     * journal is closed are ignored.  The mapping is released once it is garbage collected, as Java has no explicit
+     * unmap.
+     */
+    public void close() {
+        if(mClosed)
+            return;
+
+        mClosed = true;
+
+        try {
+            await(mExecutor.submit(new Runnable() {
+                public void run() {
+                    writeBatch();
+
+                    if(mJournal != null) {
+                        mJournal.force();
+                        mJournal = null;
+                    }
+                }
+            }));
+        }
+        catch(RejectedExecutionException ignore) {
+        }
+
+        mExecutor.shutdown();
+    }
+
+    /**
+     * Waits for a task submitted to the executor to complete
+     * @param task The submitted task
+     */
+    private static void await(final Future<?> task) {
+        try {
+            task.get();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch(ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Queue a batch write if one isn't already queued
+     */
+    private void scheduleWrite() {
+        if(mWriteScheduled.compareAndSet(false, true)) {
+            try {
+                mExecutor.execute(mWriteRunnable);
+            }
+            catch(RejectedExecutionException e) {
+                mWriteScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of events which were dropped because the ring buffer or the journal was full
+     * @return The number of dropped events
+     */
+    public int getDroppedCount() {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Opens a reader over all of the entries in the journal.  Buffered events are written first, and the call blocks
+     * until they are.
+     * @return A {@link Reader} over the committed entries
+     * @throws IOException if the journal can't be read
+     */
+    public Reader openReader() throws IOException {
+        flush();
+
+        final int generation = mGeneration;
+
+        //an empty reader starts and ends just after the header, like a journal with no entries
+        if(!mFile.exists() || mFile.length() < HEADER_SIZE) {
+            final ByteBuffer empty = ByteBuffer.allocate(HEADER_SIZE);
+            empty.position(HEADER_SIZE);
+            return new Reader(empty, HEADER_SIZE, generation);
+        }
+
+        final RandomAccessFile file = new RandomAccessFile(mFile, "r");
+
+        try {
+            final MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+
+            if(buffer.getInt(0) != MAGIC)
+                throw new IOException("Not a Burstly event journal: " + mFile);
+
+            final int end = buffer.getInt(OFFSET_END);
+            buffer.position(HEADER_SIZE);
+            return new Reader(buffer, end, generation);
+        }
+        finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Removes the entries read by a reader from the journal, keeping any entries written since it was opened.
+     * @param reader A {@link Reader} returned by {@link #openReader()}
+     */
+    public void discard(final Reader reader) {
+        final int readEnd = reader.mEnd;
+        final int generation = reader.mGeneration;
+
+        //a reader over an empty or missing journal read nothing, so there is nothing to discard
+        if(readEnd <= HEADER_SIZE)
+            return;
+
+        if(mClosed) {
+            Burstly.logW("Event journal is closed. Nothing discarded.");
+            return;
+        }
+
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                if(generation != mGeneration) {
+                    Burstly.logW("Event journal changed since the reader was opened. Nothing discarded.");
+                    return;
+                }
+
+                if(mJournal == null && !openJournal())
+                    return;
+
+                final int end = mJournal.getInt(OFFSET_END);
+
+                if(readEnd > end) {
+                    Burstly.logW("Event journal is shorter than the reader. Nothing discarded.");
+                    return;
+                }
+
+                int dst = HEADER_SIZE;
+
+                for(int src = readEnd; src < end; src++, dst++)
+                    mJournal.put(dst, mJournal.get(src));
+
+                mJournal.putInt(OFFSET_END, dst);
+                mJournal.putInt(OFFSET_COUNT, countEntries(dst));
+                mGeneration++;
+            }
+        });
+    }
+
+    /**
+     * Maps the journal file, creating and initializing it if needed.  Called from the executor.
+     * @return true if the journal was opened
+     */
+    private boolean openJournal() {
+        try {
+            final RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+
+            try {
+                final boolean isNew = file.length() < HEADER_SIZE;
+
+                if(file.length() < mJournalBytes)
+                    file.setLength(mJournalBytes);
+
+                mJournal = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+
+                if(isNew || mJournal.getInt(0) != MAGIC || mJournal.getShort(4) != VERSION) {
+                    mJournal.putInt(0, MAGIC);
+                    mJournal.putShort(4, VERSION);
+                    mJournal.putShort(6, (short)0);
+                    mJournal.putInt(OFFSET_END, HEADER_SIZE);
+                    mJournal.putInt(OFFSET_COUNT, 0);
+                }
+            }
+            finally {
+                file.close();
+            }
+
+            return true;
+        }
+        catch(IOException e) {
+            Burstly.logE("Unable to open event journal " + mFile + ": " + e.getMessage());
+            mJournal = null;
+            return false;
+        }
+    }
+
+    /**
+     * Serializes every buffered event into the journal and commits the new length.  Called from the executor.
+     */
+    private void writeBatch() {
+        final long head = mHead;
+        final long tail = mTail;
+
+        if(head == tail)
+            return;
+
+        if(mJournal == null && !openJournal()) {
+            releaseSlots(head, tail);
+            mDroppedCount.addAndGet((int)(tail - head));
+            return;
+        }
+
+        int end = mJournal.getInt(OFFSET_END);
+        int count = mJournal.getInt(OFFSET_COUNT);
+        int dropped = 0;
+
+        for(long i = head; i < tail; i++) {
+            final int index = (int)(i & mMask);
+            final int written = writeEntry(end, mTypes[index], mTimes[index], mNames[index], mEvents[index]);
+
+            if(written < 0) {
+                dropped++;
+            }
+            else {
+                end = written;
+                count++;
+            }
+        }
+
+        releaseSlots(head, tail);
+
+        //commit only after the entries are in place so a partially written batch is never read
+        mJournal.putInt(OFFSET_COUNT, count);
+        mJournal.putInt(OFFSET_END, end);
+
+        if(dropped > 0) {
+            mDroppedCount.addAndGet(dropped);
+            Burstly.logW("Event journal full. " + dropped + " events dropped.");
+        }
+    }
+
+    /**
+     * Clears ring buffer slots so events can be collected and makes them available for recording
+     * @param head First slot
+     * @param tail One past the last slot
+     */
+    private void releaseSlots(long head, long tail) {
+        for(long i = head; i < tail; i++) {
+            final int index = (int)(i & mMask);
+            mTypes[index] = null;
+            mNames[index] = null;
+            mEvents[index] = null;
+        }
+
+        mHead = tail;
+    }
+
+    /**
+     * Writes a single entry.  Called from the executor.
+     * @param offset The journal offset to write the entry at
+     * @param type The type of event
+     * @param time The time the event was recorded
+     * @param name The name of the ad
+     * @param event The event
+     * @return The offset after the entry, or -1 if it didn't fit
+     */
+    private int writeEntry(int offset, final EntryType type, long time, final String name, final AdEvent event) {
+        String network = null;
+        List<String> failed = null;
+        int flags = 0;
+        int minTime = 0;
+
+        if(type == EntryType.Show) {
+            final AdShowEvent show = (AdShowEvent)event;
+            network = show.getLoadedCreativeNetwork();
+            failed = show.getFailedCreativesNetworks();
+            flags = (show.isActivityInterstitial() ? FLAG_INTERSTITIAL : 0) | (show.isRefreshedAd() ? FLAG_REFRESH : 0);
+        }
+        else if(type == EntryType.Fail) {
+            final AdFailEvent fail = (AdFailEvent)event;
+            failed = fail.getFailedCreativesNetworks();
+            minTime = fail.getMinTimeUntilNextRequest();
+            flags = (fail.wasRequestThrottled() ? FLAG_THROTTLED : 0) | (fail.wasFailureResultOfCachingAttempt() ? FLAG_PRECACHE : 0);
+        }
+        else if(type == EntryType.Cache) {
+            final AdCacheEvent cache = (AdCacheEvent)event;
+            network = cache.getLoadedCreativeNetwork();
+            failed = cache.getFailedCreativesNetworks();
+        }
+        else {
+            network = ((AdClickEvent)event).getClickedNetwork();
+        }
+
+        final byte[] nameBytes = utf8(name);
+        final byte[] networkBytes = utf8(network);
+        final byte[][] failedBytes = utf8(failed);
+
+        int size = 1 + 8 + stringSize(nameBytes) + stringSize(networkBytes);
+
+        if(type == EntryType.Show || type == EntryType.Fail)
+            size += 1;
+
+        if(type == EntryType.Fail)
+            size += 4;
+
+        if(type != EntryType.Click) {
+            size += 2;
+
+            if(failedBytes != null) {
+                for(final byte[] bytes : failedBytes)
+                    size += stringSize(bytes);
+            }
+        }
+
+        if(offset + size > mJournal.capacity())
+            return -1;
+
+        mJournal.position(offset);
+        mJournal.put((byte)type.ordinal());
+        mJournal.putLong(time);
+        writeString(mJournal, nameBytes);
+        writeString(mJournal, networkBytes);
+
+        if(type == EntryType.Show || type == EntryType.Fail)
+            mJournal.put((byte)flags);
+
+        if(type == EntryType.Fail)
+            mJournal.putInt(minTime);
+
+        if(type != EntryType.Click) {
+            if(failedBytes == null) {
+                mJournal.putShort((short)-1);
+            }
+            else {
+                mJournal.putShort((short)failedBytes.length);
+
+                for(final byte[] bytes : failedBytes)
+                    writeString(mJournal, bytes);
+            }
+        }
+
+        return mJournal.position();
+    }
+
+    /**
+     * Counts the entries between the header and the end offset.  Called from the executor.
+     * @param end The end of the last entry
+     * @return The number of entries
+     */
+    private int countEntries(int end) {
+        final ByteBuffer buffer = mJournal.duplicate();
+        buffer.position(HEADER_SIZE);
+
+        final Reader reader = new Reader(buffer, end, mGeneration);
+        int count = 0;
+
+        while(reader.hasNext()) {
+            reader.next();
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Length prefixed string helpers.  A length of -1 encodes null.
+     */
+    private static int stringSize(final byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void writeString(final ByteBuffer buffer, final byte[] bytes) {
+        if(bytes == null) {
+            buffer.putShort((short)-1);
+        }
+        else {
+            buffer.putShort((short)bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final short length = buffer.getShort();
+
+        if(length < 0)
+            return null;
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        try {
+            return new String(bytes, "UTF-8");
+        }
+        catch(UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<String> readStringList(final ByteBuffer buffer) {
+        final short count = buffer.getShort();
+
+        if(count < 0)
+            return null;
+
+        final ArrayList<String> list = new ArrayList<String>(count);
+
+        for(int i = 0; i < count; i++)
+            list.add(readString(buffer));
+
+        return list;
+    }
+
+    private static byte[] utf8(final String s) {
+        if(s == null)
+            return null;
+
+        try {
+            final byte[] bytes = s.getBytes("UTF-8");
+            return bytes.length > Short.MAX_VALUE ? null : bytes;
+        }
+        catch(UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[][] utf8(final List<String> list) {
+        if(list == null)
+            return null;
+
+        final int count = Math.min(list.size(), Short.MAX_VALUE);
+        final byte[][] bytes = new byte[count][];
+
+        for(int i = 0; i < count; i++)
+            bytes[i] = utf8(list.get(i));
+
+        return bytes;
+    }
+}
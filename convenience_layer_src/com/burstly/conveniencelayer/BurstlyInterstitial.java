@@ -1,8 +1,6 @@
 package com.burstly.conveniencelayer;
 
 import android.app.Activity;
-import android.os.Handler;
-import android.os.Looper;
 import android.support.v4.app.Fragment;
 import com.burstly.conveniencelayer.events.AdCacheEvent;
 import com.burstly.conveniencelayer.events.AdFailEvent;
@@ -62,12 +60,38 @@ public class BurstlyInterstitial extends BurstlyBaseAd implements ICacheable {
      * @param viewName The name of this view which will be used to identify it in teh logs
      */
     public void initNewBurstlyInterstitial(final Activity activity, final String zoneId, final String viewName) {
+        if(Burstly.isLazyPlacements()) {
+            setLazyBurstlyView(zoneId, viewName, AdType.Interstitial);
+            return;
+        }
+
+        setBurstlyView(buildBurstlyView(activity, zoneId, viewName), AdType.Interstitial);
+    }
+
+    /**
+     * Creates the {@link BurstlyView} for a lazily constructed interstitial
+     * @return A new {@link BurstlyView}
+     */
+    @Override
+    protected BurstlyView createBurstlyView() {
+        final Activity activity = (mActivity != null) ? mActivity : mFragment.getActivity();
+        return buildBurstlyView(activity, getZoneId(), getName());
+    }
+
+    /**
+     * Creates a {@link BurstlyView} for an interstitial zone
+     * @param activity The {@link Activity} the interstitials are launched from
+     * @param zoneId The zoneId for these interstitials
+     * @param viewName The name of this view which will be used to identify it in the logs
+     * @return A new {@link BurstlyView}
+     */
+    private static BurstlyView buildBurstlyView(final Activity activity, final String zoneId, final String viewName) {
         final BurstlyView burstlyView = new BurstlyView(activity);
         burstlyView.setPublisherId( Burstly.getAppID() );
         burstlyView.setZoneId(zoneId);
         burstlyView.setBurstlyViewId(viewName);
 
-        setBurstlyView(burstlyView, AdType.Interstitial);
+        return burstlyView;
     }
 
     /* REMOVED REQUIRES API LEVEL 12
@@ -86,6 +110,14 @@ public class BurstlyInterstitial extends BurstlyBaseAd implements ICacheable {
     protected void burstlyViewDetachedFromWindow() {}
     */
 
+    /**
+     * Gets whether caching is managed automatically for this placement
+     * @return true if ads are cached automatically
+     */
+    boolean isAutoCached() {
+        return mAutoCached;
+    }
+
     /**
      * Called by the convenience layer when the activity or fragment associated with this ad is paused.
      */
@@ -116,7 +148,7 @@ public class BurstlyInterstitial extends BurstlyBaseAd implements ICacheable {
             else {
                 //If Idle while auto caching is enabled it's because the last request failed and it's waiting for a
                 //retry treat as a failure.
-                super.onFail(new AdFailEvent(mFailedCreativesList, getBurstlyView(), false));
+                super.onFail(AdEventPool.obtainFailEvent(mFailedCreatives, getBurstlyView().getMinTimeUntilNextRequest(), false));
             }
         }
         else {
@@ -158,24 +190,15 @@ public class BurstlyInterstitial extends BurstlyBaseAd implements ICacheable {
      */
     @Override
     protected void onFail(final AdFailEvent event) {
-        if(mAutoCached && !hasCachedAd()) {
-            new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
-                public void run() {
-                    if(!hasCachedAd())
-                        BurstlyInterstitial.super.baseCacheAd();
-                }
-            }, event.getMinTimeUntilNextRequest());
-        }
+        if(mAutoCached && !hasCachedAd())
+            scheduleCacheRetry(event);
 
         mShowTriggered = false;
         mCachingState = CachingState.Idle;
 
         //No callbacks for autocaching failures
-        if( !(mAutoCached && event.wasFailureResultOfCachingAttempt()) ) {
-            for(final IBurstlyListener listener:mListeners) {
-                listener.onFail(this, event);
-            }
-        }
+        if( !(mAutoCached && event.wasFailureResultOfCachingAttempt()) )
+            dispatchFail(event);
     }
 
     /**
@@ -0,0 +1,335 @@
+package com.burstly.conveniencelayer;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.support.v4.app.Fragment;
+import com.burstly.conveniencelayer.events.AdCacheEvent;
+import com.burstly.conveniencelayer.events.AdDismissFullscreenEvent;
+import com.burstly.conveniencelayer.events.AdFailEvent;
+
+/**
+ * BurstlyInterstitialPool keeps several interstitials for the same zone precached so that back to back interstitial
+ * opportunities can be shown immediately.  Each slot in the pool is a {@link BurstlyInterstitial} with its own
+ * BurstlyView.  Slots are filled one at a time in the background so requests aren't throttled, and the freshest
+ * cached creative is used each time {@link #showAd()} is called.
+ */
+public class BurstlyInterstitialPool {
+    /**
+     * The interstitials in the pool
+     */
+    private final BurstlyInterstitial[] mSlots;
+
+    /**
+     * The time each slot finished caching (0 if the slot has no cached ad)
+     */
+    private final long[] mCacheTimes;
+
+    /**
+     * Is each slot's ad currently on screen.  A showing slot isn't refilled until its ad is dismissed.
+     */
+    private final boolean[] mShowing;
+
+    /**
+     * Timer used to schedule retries
+     */
+    private final TimerWheel.Timer mRetryTimer;
+
+    /**
+     * Is a slot currently being filled
+     */
+    private boolean mFilling;
+
+    /**
+     * Is the owning activity or fragment paused
+     */
+    private boolean mPaused;
+
+    /**
+     * Was showAd called while no slot had a cached ad
+     */
+    private boolean mShowPending;
+
+    /**
+     * Number of consecutive failed precaches
+     */
+    private int mRetryAttempts;
+
+    /**
+     * Retries filling the pool after a failure
+     */
+    private final Runnable mRetryRunnable = new Runnable() {
+        public void run() {
+            fillNext();
+        }
+    };
+
+    /**
+     * Listener receiving callbacks from every slot
+     */
+    private final IBurstlyListener mSlotListener = new BurstlyListenerAdapter() {
+        @Override
+        public void onCache(final BurstlyBaseAd ad, final AdCacheEvent event) {
+            final int slot = indexOf(ad);
+
+            if(mCacheTimes[slot] == 0)
+                mCacheTimes[slot] = SystemClock.elapsedRealtime();
+
+            mFilling = false;
+            mRetryAttempts = 0;
+
+            if(mShowPending) {
+                mShowPending = false;
+                showAd();
+            }
+            else {
+                fillNext();
+            }
+        }
+
+        @Override
+        public void onFail(final BurstlyBaseAd ad, final AdFailEvent event) {
+            final int slot = indexOf(ad);
+            mCacheTimes[slot] = 0;
+            mShowing[slot] = false;
+
+            if(event.wasFailureResultOfCachingAttempt()) {
+                mFilling = false;
+                mShowPending = false;
+
+                final long delay = ad.getRetryPolicy().getRetryDelay(ad, event, ++mRetryAttempts);
+
+                if(delay >= 0)
+                    TimerWheel.get().schedule(mRetryTimer, delay);
+                else
+                    Burstly.logW("Interstitial pool giving up after " + (mRetryAttempts - 1) + " failed attempts.");
+            }
+        }
+
+        @Override
+        public void onDismissFullscreen(final BurstlyBaseAd ad, final AdDismissFullscreenEvent event) {
+            mShowing[indexOf(ad)] = false;
+            fillNext();
+        }
+    };
+
+    /**
+     * Stops filling while paused and starts filling again when resumed
+     */
+    private final IActivityListener mActivityListener = new IActivityListener() {
+        public void activityPaused(final Activity activity) {
+            paused();
+        }
+
+        public void activityResumed(final Activity activity) {
+            resumed();
+        }
+
+        public void activityDestroyed(final Activity activity) {
+            destroyed();
+        }
+    };
+
+    private final IFragmentListener mFragmentListener = new IFragmentListener() {
+        public void fragmentPaused(final Fragment fragment) {
+            paused();
+        }
+
+        public void fragmentResumed(final Fragment fragment) {
+            resumed();
+        }
+
+        public void fragmentDestroyed(final Fragment fragment) {
+            destroyed();
+        }
+    };
+
+    /**
+     * Constructs a pool of interstitials shown from an {@link Activity}
+     * @param activity The {@link Activity} where the interstitials are requested from and will be launched from
+     * @param zoneId The zoneId for these interstitials
+     * @param viewName The base name of the views in the pool.  Each slot's index is appended to identify it in the logs
+     * @param size The number of interstitials to keep cached
+     */
+    public BurstlyInterstitialPool(final Activity activity, final String zoneId, final String viewName, int size) {
+        if(size < 1)
+            throw new IllegalArgumentException("Interstitial pool size must be at least 1");
+
+        mSlots = new BurstlyInterstitial[size];
+        mCacheTimes = new long[size];
+        mShowing = new boolean[size];
+        mRetryTimer = new TimerWheel.Timer(this, activity, mRetryRunnable);
+
+        for(int i = 0; i < size; i++)
+            mSlots[i] = new BurstlyInterstitial(activity, zoneId, viewName + "_" + i, false);
+
+        init();
+        Burstly.addActivityListener(activity, mActivityListener);
+    }
+
+    /**
+     * Constructs a pool of interstitials shown from a {@link Fragment}
+     * @param fragment The {@link Fragment} where the interstitials are requested from and will be launched from
+     * @param zoneId The zoneId for these interstitials
+     * @param viewName The base name of the views in the pool.  Each slot's index is appended to identify it in the logs
+     * @param size The number of interstitials to keep cached
+     */
+    public BurstlyInterstitialPool(final Fragment fragment, final String zoneId, final String viewName, int size) {
+        if(size < 1)
+            throw new IllegalArgumentException("Interstitial pool size must be at least 1");
+
+        mSlots = new BurstlyInterstitial[size];
+        mCacheTimes = new long[size];
+        mShowing = new boolean[size];
+        mRetryTimer = new TimerWheel.Timer(this, fragment, mRetryRunnable);
+
+        for(int i = 0; i < size; i++)
+            mSlots[i] = new BurstlyInterstitial(fragment, zoneId, viewName + "_" + i, false);
+
+        init();
+        Burstly.addFragmentListener(fragment, mFragmentListener);
+    }
+
+    /**
+     * Attach the slot listener and begin filling the pool
+     */
+    private void init() {
+        for(final BurstlyInterstitial slot : mSlots)
+            slot.addBurstlyListener(mSlotListener);
+
+        fillNext();
+    }
+
+    /**
+     * Gets the index of a slot
+     * @param ad The slot's ad
+     * @return The index of the slot
+     */
+    private int indexOf(final BurstlyBaseAd ad) {
+        for(int i = 0; i < mSlots.length; i++) {
+            if(mSlots[i] == ad)
+                return i;
+        }
+
+        throw new RuntimeException("Ad " + ad.getName() + " is not part of this pool");
+    }
+
+    /**
+     * Starts caching the next empty slot which isn't showing if no slot is currently being filled
+     */
+    private void fillNext() {
+        if(mFilling || mPaused)
+            return;
+
+        for(int i = 0; i < mSlots.length; i++) {
+            final BurstlyInterstitial slot = mSlots[i];
+
+            if(!mShowing[i] && !slot.hasCachedAd() && !slot.isCachingAd()) {
+                mCacheTimes[i] = 0;
+                mFilling = true;
+                slot.cacheAd();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Shows the freshest cached interstitial.  If none are cached the next interstitial to finish caching is shown.
+     */
+    public void showAd() {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
+        int freshest = -1;
+
+        for(int i = 0; i < mSlots.length; i++) {
+            if(mCacheTimes[i] != 0 && mSlots[i].hasCachedAd() && (freshest < 0 || mCacheTimes[i] > mCacheTimes[freshest]))
+                freshest = i;
+        }
+
+        if(freshest >= 0) {
+            mCacheTimes[freshest] = 0;
+            mShowing[freshest] = true;
+            mSlots[freshest].showAd();
+        }
+        else {
+            Burstly.logW("No interstitial cached in pool. Showing the next one to finish caching.");
+            mShowPending = true;
+            fillNext();
+        }
+    }
+
+    /**
+     * Gets whether there is a cached ad ready to be shown
+     * @return true if at least one slot has a cached ad
+     */
+    public boolean hasCachedAd() {
+        return getCachedCount() > 0;
+    }
+
+    /**
+     * Gets the number of slots with a cached ad ready to be shown
+     * @return The number of cached ads
+     */
+    public int getCachedCount() {
+        int count = 0;
+
+        for(final BurstlyInterstitial slot : mSlots) {
+            if(slot.hasCachedAd())
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the number of interstitials in the pool
+     * @return The size of the pool
+     */
+    public int getSize() {
+        return mSlots.length;
+    }
+
+    /**
+     * Add a {@link IBurstlyListener} to every interstitial in the pool
+     * @param listener A {@link IBurstlyListener} which will receive callbacks when ad events occur
+     */
+    public void addBurstlyListener(final IBurstlyListener listener) {
+        for(final BurstlyInterstitial slot : mSlots)
+            slot.addBurstlyListener(listener);
+    }
+
+    /**
+     * Removes a {@link IBurstlyListener} from every interstitial in the pool
+     * @param listener {@link IBurstlyListener} to be removed
+     */
+    public void removeBurstlyListener(final IBurstlyListener listener) {
+        for(final BurstlyInterstitial slot : mSlots)
+            slot.removeBurstlyListener(listener);
+    }
+
+    /**
+     * Called when the activity or fragment associated with the pool is paused
+     */
+    private void paused() {
+        mPaused = true;
+        mFilling = false;
+        mShowPending = false;
+        TimerWheel.get().cancel(mRetryTimer);
+    }
+
+    /**
+     * Called when the activity or fragment associated with the pool is resumed
+     */
+    private void resumed() {
+        mPaused = false;
+        mRetryAttempts = 0;
+        fillNext();
+    }
+
+    /**
+     * Called when the activity or fragment associated with the pool is destroyed
+     */
+    private void destroyed() {
+        mPaused = true;
+        TimerWheel.get().cancel(mRetryTimer);
+    }
+}
@@ -0,0 +1,474 @@
+package com.burstly.conveniencelayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BurstlyMetrics aggregates request results for every zone and ad network used by the convenience layer.  For each
+ * zone it records how many requests were made, how many filled, how many were throttled, the latency from the start of
+ * the request to the ad loading or caching, and the waterfall depth (number of networks tried) of each request.  For
+ * each network within a zone it records attempts, fills, failures and the latency of the requests it filled.
+ *
+ * Recording never locks or allocates once a zone and network have been seen, and every value can be read at runtime
+ * from any thread.
+ */
+public final class BurstlyMetrics {
+    /**
+     * Histogram of non-negative long values.  Values are bucketed with a fixed relative precision like an HDR
+     * histogram: values below 16 are exact and each power of 2 above that is split into 8 linear sub-buckets, so
+     * reported values are within 12.5% of the recorded value.  Values above 2^40 are clamped.
+     */
+    public static final class Histogram {
+        private static final int LINEAR_BUCKETS = 16;
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_EXPONENT = 40;
+        private static final int OVERFLOW_BUCKET = LINEAR_BUCKETS + (MAX_EXPONENT - 4) * SUB_BUCKETS;
+        private static final int BUCKET_COUNT = OVERFLOW_BUCKET + 1;
+
+        private final AtomicLongArray mCounts = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong mTotalCount = new AtomicLong();
+        private final AtomicLong mSum = new AtomicLong();
+        private final AtomicLong mMax = new AtomicLong();
+
+        Histogram() {
+        }
+
+        /**
+         * Gets the bucket a value is counted in
+         * @param value The recorded value
+         * @return The bucket index
+         */
+        private static int bucketOf(long value) {
+            if(value < LINEAR_BUCKETS)
+                return (int)value;
+
+            final int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+
+            if(exponent == MAX_EXPONENT)
+                return OVERFLOW_BUCKET;
+
+            final int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+        }
+
+        /**
+         * Gets the highest value counted in a bucket
+         * @param bucket The bucket index
+         * @return The largest value which maps to the bucket
+         */
+        private static long highestValueOf(int bucket) {
+            if(bucket < LINEAR_BUCKETS)
+                return bucket;
+
+            if(bucket == OVERFLOW_BUCKET)
+                return Long.MAX_VALUE;
+
+            final int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+            final int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+            final int shift = exponent - SUB_BUCKET_BITS;
+
+            return ((long)(SUB_BUCKETS + subBucket + 1) << shift) - 1;
+        }
+
+        /**
+         * Records a value
+         * @param value The value, negative values are recorded as 0
+         */
+        void record(long value) {
+            if(value < 0)
+                value = 0;
+
+            mCounts.incrementAndGet(bucketOf(value));
+            mTotalCount.incrementAndGet();
+            mSum.addAndGet(value);
+
+            long max = mMax.get();
+            while(value > max && !mMax.compareAndSet(max, value))
+                max = mMax.get();
+        }
+
+        /**
+         * Gets the number of recorded values
+         * @return The count
+         */
+        public long getCount() {
+            return mTotalCount.get();
+        }
+
+        /**
+         * Gets the mean of the recorded values
+         * @return The mean, or 0 if nothing was recorded
+         */
+        public double getMean() {
+            final long count = mTotalCount.get();
+            return (count > 0) ? (double)mSum.get() / count : 0.0;
+        }
+
+        /**
+         * Gets the largest recorded value
+         * @return The maximum, or 0 if nothing was recorded
+         */
+        public long getMax() {
+            return mMax.get();
+        }
+
+        /**
+         * Gets the value at a percentile
+         * @param percentile The percentile, 0.0 - 100.0
+         * @return The highest value in the bucket containing the percentile, or 0 if nothing was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            final long count = mTotalCount.get();
+
+            if(count == 0)
+                return 0;
+
+            final long target = Math.max(1, (long)Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+            long seen = 0;
+
+            for(int i = 0; i < BUCKET_COUNT; i++) {
+                seen += mCounts.get(i);
+
+                if(seen >= target)
+                    return Math.min(highestValueOf(i), mMax.get());
+            }
+
+            return mMax.get();
+        }
+
+        /**
+         * Clears all recorded values
+         */
+        void reset() {
+            for(int i = 0; i < BUCKET_COUNT; i++)
+                mCounts.set(i, 0);
+
+            mTotalCount.set(0);
+            mSum.set(0);
+            mMax.set(0);
+        }
+    }
+
+    /**
+     * Metrics for a single ad network within a zone
+     */
+    public static final class NetworkMetrics {
+        private final String mNetwork;
+        private final AtomicLong mAttempts = new AtomicLong();
+        private final AtomicLong mFills = new AtomicLong();
+        private final AtomicLong mFailures = new AtomicLong();
+        private final Histogram mLatency = new Histogram();
+
+        NetworkMetrics(final String network) {
+            mNetwork = network;
+        }
+
+        /**
+         * Gets the network name
+         * @return The name of the network
+         */
+        public String getNetwork() {
+            return mNetwork;
+        }
+
+        /**
+         * Gets the number of times this network was tried
+         * @return number of load attempts
+         */
+        public long getAttempts() {
+            return mAttempts.get();
+        }
+
+        /**
+         * Gets the number of times this network loaded an ad
+         * @return number of fills
+         */
+        public long getFills() {
+            return mFills.get();
+        }
+
+        /**
+         * Gets the number of times this network failed to load
+         * @return number of failures
+         */
+        public long getFailures() {
+            return mFailures.get();
+        }
+
+        /**
+         * Gets the fraction of attempts which filled
+         * @return fill rate 0.0 - 1.0, or 0 if the network was never tried
+         */
+        public double getFillRate() {
+            final long attempts = mAttempts.get();
+            return (attempts > 0) ? (double)mFills.get() / attempts : 0.0;
+        }
+
+        /**
+         * Gets the latency in ms from the start of the request to this network's ad loading
+         * @return {@link Histogram} of latencies for requests this network filled
+         */
+        public Histogram getLatency() {
+            return mLatency;
+        }
+
+        void reset() {
+            mAttempts.set(0);
+            mFills.set(0);
+            mFailures.set(0);
+            mLatency.reset();
+        }
+    }
+
+    /**
+     * Metrics for a single zone
+     */
+    public static final class ZoneMetrics {
+        private final String mZoneId;
+        private final AtomicLong mRequests = new AtomicLong();
+        private final AtomicLong mFills = new AtomicLong();
+        private final AtomicLong mNoFills = new AtomicLong();
+        private final AtomicLong mThrottles = new AtomicLong();
+        private final Histogram mLatency = new Histogram();
+        private final Histogram mWaterfallDepth = new Histogram();
+        private final ConcurrentHashMap<String, NetworkMetrics> mNetworks = new ConcurrentHashMap<String, NetworkMetrics>();
+
+        ZoneMetrics(final String zoneId) {
+            mZoneId = zoneId;
+        }
+
+        /**
+         * Gets the zone id
+         * @return The zone these metrics are for
+         */
+        public String getZoneId() {
+            return mZoneId;
+        }
+
+        /**
+         * Gets the number of requests sent to the server
+         * @return number of requests
+         */
+        public long getRequests() {
+            return mRequests.get();
+        }
+
+        /**
+         * Gets the number of requests which loaded or cached an ad
+         * @return number of fills
+         */
+        public long getFills() {
+            return mFills.get();
+        }
+
+        /**
+         * Gets the number of requests where every network failed
+         * @return number of requests without a fill
+         */
+        public long getNoFills() {
+            return mNoFills.get();
+        }
+
+        /**
+         * Gets the number of requests which were throttled
+         * @return number of throttled requests
+         */
+        public long getThrottles() {
+            return mThrottles.get();
+        }
+
+        /**
+         * Gets the fraction of completed requests which filled
+         * @return fill rate 0.0 - 1.0, or 0 if no requests completed
+         */
+        public double getFillRate() {
+            final long fills = mFills.get();
+            final long completed = fills + mNoFills.get();
+            return (completed > 0) ? (double)fills / completed : 0.0;
+        }
+
+        /**
+         * Gets the latency in ms from the start of the request to an ad loading or caching
+         * @return {@link Histogram} of fill latencies
+         */
+        public Histogram getLatency() {
+            return mLatency;
+        }
+
+        /**
+         * Gets the number of networks tried by each completed request
+         * @return {@link Histogram} of waterfall depths
+         */
+        public Histogram getWaterfallDepth() {
+            return mWaterfallDepth;
+        }
+
+        /**
+         * Gets the metrics for a network in this zone
+         * @param network The network name
+         * @return {@link NetworkMetrics} for the network, or null if it has never been tried in this zone
+         */
+        public NetworkMetrics getNetworkMetrics(final String network) {
+            return mNetworks.get(network);
+        }
+
+        /**
+         * Gets the metrics for every network tried in this zone
+         * @return A new list containing the {@link NetworkMetrics} for each network
+         */
+        public List<NetworkMetrics> getAllNetworkMetrics() {
+            return new ArrayList<NetworkMetrics>(mNetworks.values());
+        }
+
+        /**
+         * Gets or creates the metrics for a network
+         * @param network The network name
+         * @return The {@link NetworkMetrics} for the network
+         */
+        NetworkMetrics network(final String network) {
+            NetworkMetrics metrics = mNetworks.get(network);
+
+            if(metrics == null) {
+                final NetworkMetrics created = new NetworkMetrics(network);
+                metrics = mNetworks.putIfAbsent(network, created);
+
+                if(metrics == null)
+                    metrics = created;
+            }
+
+            return metrics;
+        }
+
+        void reset() {
+            mRequests.set(0);
+            mFills.set(0);
+            mNoFills.set(0);
+            mThrottles.set(0);
+            mLatency.reset();
+            mWaterfallDepth.reset();
+
+            for(final NetworkMetrics metrics : mNetworks.values())
+                metrics.reset();
+        }
+    }
+
+    /**
+     * Metrics for every zone
+     */
+    private static final ConcurrentHashMap<String, ZoneMetrics> sZones = new ConcurrentHashMap<String, ZoneMetrics>();
+
+    private BurstlyMetrics() {
+    }
+
+    /**
+     * Gets the metrics for a zone
+     * @param zoneId The zone id
+     * @return {@link ZoneMetrics} for the zone, or null if no requests have been made for it
+     */
+    public static ZoneMetrics getZoneMetrics(final String zoneId) {
+        return sZones.get(zoneId);
+    }
+
+    /**
+     * Gets the metrics for every zone
+     * @return A new list containing the {@link ZoneMetrics} for each zone
+     */
+    public static List<ZoneMetrics> getAllZoneMetrics() {
+        return new ArrayList<ZoneMetrics>(sZones.values());
+    }
+
+    /**
+     * Clears all recorded metrics
+     */
+    public static void reset() {
+        for(final ZoneMetrics metrics : sZones.values())
+            metrics.reset();
+    }
+
+    /**
+     * Gets or creates the metrics for a zone
+     * @param zoneId The zone id
+     * @return The {@link ZoneMetrics} for the zone
+     */
+    static ZoneMetrics zone(final String zoneId) {
+        final String key = (zoneId != null) ? zoneId : "";
+        ZoneMetrics metrics = sZones.get(key);
+
+        if(metrics == null) {
+            final ZoneMetrics created = new ZoneMetrics(key);
+            metrics = sZones.putIfAbsent(key, created);
+
+            if(metrics == null)
+                metrics = created;
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Records the start of a request to the server
+     * @param zoneId The zone requested
+     */
+    static void recordRequest(final String zoneId) {
+        zone(zoneId).mRequests.incrementAndGet();
+    }
+
+    /**
+     * Records an attempt to load a network's creative
+     * @param zoneId The zone requested
+     * @param network The network being tried
+     */
+    static void recordAttempt(final String zoneId, final String network) {
+        zone(zoneId).network(network).mAttempts.incrementAndGet();
+    }
+
+    /**
+     * Records a network failing to load
+     * @param zoneId The zone requested
+     * @param network The network which failed
+     */
+    static void recordNetworkFailure(final String zoneId, final String network) {
+        zone(zoneId).network(network).mFailures.incrementAndGet();
+    }
+
+    /**
+     * Records a request which loaded or cached an ad
+     * @param zoneId The zone requested
+     * @param network The network which filled the request
+     * @param latency Time in ms from the start of the request
+     * @param depth The number of networks tried, including the one which filled
+     */
+    static void recordFill(final String zoneId, final String network, long latency, int depth) {
+        final ZoneMetrics zone = zone(zoneId);
+        zone.mFills.incrementAndGet();
+        zone.mLatency.record(latency);
+        zone.mWaterfallDepth.record(depth);
+
+        final NetworkMetrics metrics = zone.network(network);
+        metrics.mFills.incrementAndGet();
+        metrics.mLatency.record(latency);
+    }
+
+    /**
+     * Records a request where every network failed
+     * @param zoneId The zone requested
+     * @param depth The number of networks tried
+     */
+    static void recordNoFill(final String zoneId, int depth) {
+        final ZoneMetrics zone = zone(zoneId);
+        zone.mNoFills.incrementAndGet();
+        zone.mWaterfallDepth.record(depth);
+    }
+
+    /**
+     * Records a throttled request
+     * @param zoneId The zone requested
+     */
+    static void recordThrottle(final String zoneId) {
+        zone(zoneId).mThrottles.incrementAndGet();
+    }
+}
@@ -0,0 +1,195 @@
+package com.burstly.conveniencelayer;
+
+import android.app.Activity;
+import android.support.v4.app.Fragment;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.WeakHashMap;
+
+/**
+ * BurstlyPlacementRecycler keeps placements alive across fragments which are destroyed and recreated, such as the pages
+ * of a ViewPager or the tabs of a TabHost.  Placements obtained here are not destroyed with their fragment.  Instead
+ * they are detached, keeping their {@link com.burstly.lib.ui.BurstlyView} and any cached ad, and handed to the next
+ * fragment which asks for a placement with the same view name.  View names already identify a single app/zone
+ * combination, so they are used as the key.
+ *
+ * A recycled placement loses the listeners and viewport tracking set up by the fragment it was detached from, since
+ * those usually reference the old fragment's views.  Recycled placements which aren't reused are destroyed along with
+ * their activity.  All methods must be called from the ui thread.
+ */
+public final class BurstlyPlacementRecycler {
+    /**
+     * A placement waiting to be reused
+     */
+    private static final class Entry implements IActivityListener {
+        /**
+         * The detached placement
+         */
+        final BurstlyBaseAd mAd;
+
+        /**
+         * The activity the placement's view was created with
+         */
+        final Activity mActivity;
+
+        Entry(final BurstlyBaseAd ad, final Activity activity) {
+            mAd = ad;
+            mActivity = activity;
+        }
+
+        public void activityPaused(final Activity activity) {
+        }
+
+        public void activityResumed(final Activity activity) {
+        }
+
+        /**
+         * The activity is gone so the placement can't be reused
+         */
+        public void activityDestroyed(final Activity activity) {
+            if(sRecycled.get(mAd.getName()) == this)
+                sRecycled.remove(mAd.getName());
+
+            mAd.destroyed();
+        }
+    }
+
+    /**
+     * Detached placements by view name
+     */
+    private static final HashMap<String, Entry> sRecycled = new HashMap<String, Entry>();
+
+    /**
+     * The zone each recyclable placement was constructed with.  Integration mode replaces the zone on the view itself.
+     */
+    private static final WeakHashMap<BurstlyBaseAd, String> sZones = new WeakHashMap<BurstlyBaseAd, String>();
+
+    private BurstlyPlacementRecycler() {
+    }
+
+    /**
+     * Gets a recycled interstitial with the given view name, or constructs a new one
+     * @param fragment The {@link Fragment} where the interstitials are requested from and will be launched from
+     * @param zoneId The zoneId for these interstitials
+     * @param viewName The name of this view which will be used to identify it in the logs
+     * @param autoCache Do you want the caching of ads automatically managed for you?
+     * @return A {@link BurstlyInterstitial} associated with the fragment
+     */
+    public static BurstlyInterstitial obtainInterstitial(final Fragment fragment, final String zoneId, final String viewName, boolean autoCache) {
+        final BurstlyBaseAd recycled = take(fragment, zoneId, viewName);
+
+        if(recycled instanceof BurstlyInterstitial && ((BurstlyInterstitial)recycled).isAutoCached() == autoCache) {
+            recycled.attachToHost(fragment);
+            return (BurstlyInterstitial)recycled;
+        }
+
+        if(recycled != null)
+            recycled.destroyed();
+
+        final BurstlyInterstitial interstitial = new BurstlyInterstitial(fragment, zoneId, viewName, autoCache);
+        interstitial.setRecyclable(true);
+        sZones.put(interstitial, zoneId);
+        return interstitial;
+    }
+
+    /**
+     * Gets a recycled banner with the given view name and attaches it to a ViewGroup, or constructs a new one
+     * @param fragment The {@link Fragment} associated with this ad
+     * @param group The {@link ViewGroup} this ad will be attached to
+     * @param params The {@link ViewGroup.LayoutParams} used to attach an ad to the ViewGroup
+     * @param zoneId The zoneId for this banner
+     * @param viewName The name of this view which will be used to identify it in the logs
+     * @param refreshRate The number of seconds between banner refreshes (Minimum 10 seconds)
+     * @return A {@link BurstlyBanner} associated with the fragment
+     */
+    public static BurstlyBanner obtainBanner(final Fragment fragment, final ViewGroup group, final ViewGroup.LayoutParams params, final String zoneId, final String viewName, int refreshRate) {
+        final BurstlyBaseAd recycled = take(fragment, zoneId, viewName);
+
+        if(recycled instanceof BurstlyBanner) {
+            final BurstlyBanner banner = (BurstlyBanner)recycled;
+            banner.attachToHost(fragment);
+            banner.moveTo(group, params, refreshRate);
+            return banner;
+        }
+
+        if(recycled != null)
+            recycled.destroyed();
+
+        final BurstlyBanner banner = new BurstlyBanner(fragment, group, params, zoneId, viewName, refreshRate);
+        banner.setRecyclable(true);
+        sZones.put(banner, zoneId);
+        return banner;
+    }
+
+    /**
+     * Destroys every placement waiting to be reused
+     */
+    public static void clear() {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
+        final ArrayList<Entry> entries = new ArrayList<Entry>(sRecycled.values());
+        sRecycled.clear();
+
+        for(int i = 0; i < entries.size(); i++) {
+            final Entry entry = entries.get(i);
+
+            Burstly.removeActivityListener(entry.mActivity, entry);
+            entry.mAd.destroyed();
+        }
+    }
+
+    /**
+     * Called when the fragment associated with a recyclable placement is destroyed
+     * @param ad The placement
+     */
+    static void recycle(final BurstlyBaseAd ad) {
+        final Fragment fragment = ad.mFragment;
+        final Activity activity = (fragment != null) ? fragment.getActivity() : null;
+
+        //nothing can reuse a placement whose activity is going away, and only one placement is kept per view name
+        if(activity == null || activity.isFinishing() || sRecycled.containsKey(ad.getName())) {
+            ad.destroyed();
+            return;
+        }
+
+        if(ad instanceof BurstlyBanner)
+            ((BurstlyBanner)ad).removeFromParent();
+
+        ad.detachFromHost();
+
+        final Entry entry = new Entry(ad, activity);
+        sRecycled.put(ad.getName(), entry);
+        Burstly.addActivityListener(activity, entry);
+
+        Burstly.logD(ad.getName() + ": recycled.");
+    }
+
+    /**
+     * Removes the placement waiting under a view name if it can be reused by a fragment
+     * @param fragment The {@link Fragment} which will use the placement
+     * @param zoneId The zoneId the placement must use
+     * @param viewName The view name
+     * @return The placement, or null if there is none
+     */
+    private static BurstlyBaseAd take(final Fragment fragment, final String zoneId, final String viewName) {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
+        final Entry entry = sRecycled.remove(viewName);
+
+        if(entry == null)
+            return null;
+
+        Burstly.removeActivityListener(entry.mActivity, entry);
+
+        //the placement's view was built with its old activity so it can only move between fragments of that activity
+        if(entry.mActivity != fragment.getActivity() || !zoneId.equals(sZones.get(entry.mAd))) {
+            entry.mAd.destroyed();
+            return null;
+        }
+
+        Burstly.logD(viewName + ": reusing recycled placement.");
+        return entry.mAd;
+    }
+}
@@ -0,0 +1,348 @@
+package com.burstly.conveniencelayer;
+
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * BurstlyRefreshCoordinator takes over refreshing for every live banner so that screens with several banners don't
+ * wake the radio separately for each banner's own refresh timer.  Each banner keeps its own refresh interval, but
+ * refreshes which come due within the batching window of each other are aligned and sent together, so the radio is
+ * woken once per batch.
+ *
+ * Install a coordinator with {@link Burstly#setRefreshCoordinator(BurstlyRefreshCoordinator)}.  It adopts every
+ * {@link BurstlyBanner} and {@link BurstlyAnimatedBanner} known to {@link Burstly}, including banners created before it
+ * was installed, and banners created later are adopted on the next pass once their views exist.  Uninstalling it hands
+ * refreshing back to each banner's {@link com.burstly.lib.ui.BurstlyView}.
+ *
+ * Refreshing is paused for banners whose activity or fragment is paused, for animated banners which aren't on screen,
+ * and for banners whose view isn't shown or is out of the viewport (see
+ * {@link BurstlyBaseAd#setMinVisibleFraction(float)}).  A banner which missed a refresh while out of the viewport is
+ * refreshed as soon as it comes back into view.  Destroyed banners are dropped automatically.  All methods must be called
+ * from the ui thread.
+ */
+public class BurstlyRefreshCoordinator {
+    /**
+     * Defaults
+     */
+    public static final long DEFAULT_BATCH_WINDOW = 5 * 1000;
+
+    /**
+     * Refresh interval used for banners which don't have one set
+     */
+    private static final int DEFAULT_REFRESH_SECONDS = 30;
+
+    /**
+     * Tracking data for a single banner
+     */
+    private static final class Entry {
+        /**
+         * Time in ms between refreshes
+         */
+        final long mInterval;
+
+        /**
+         * The session life set on the banner's view before it was registered
+         */
+        final int mOriginalSessionLife;
+
+        /**
+         * Time the banner is next due to refresh
+         */
+        long mNextRefresh;
+
+        Entry(long interval, int originalSessionLife) {
+            mInterval = interval;
+            mOriginalSessionLife = originalSessionLife;
+        }
+    }
+
+    /**
+     * Registered banners
+     */
+    private final WeakHashMap<BurstlyBaseAd, Entry> mEntries = new WeakHashMap<BurstlyBaseAd, Entry>();
+
+    /**
+     * Refreshes due within this window of each other are sent together
+     */
+    private final long mBatchWindow;
+
+    /**
+     * Timer running the refresh pass
+     */
+    private final TimerWheel.Timer mPassTimer;
+
+    /**
+     * Time the next refresh pass is scheduled for, or 0 if none is scheduled
+     */
+    private long mNextPass;
+
+    /**
+     * Scratch lists reused by each refresh pass
+     */
+    private final ArrayList<BurstlyBaseAd> mDue = new ArrayList<BurstlyBaseAd>();
+    private final ArrayList<Entry> mRescheduled = new ArrayList<Entry>();
+    private final ArrayList<BurstlyBaseAd> mLive = new ArrayList<BurstlyBaseAd>();
+
+    /**
+     * Is the coordinator installed with {@link Burstly}
+     */
+    private boolean mInstalled;
+
+    /**
+     * Were placements created since the last pass which may need adopting
+     */
+    private boolean mAdoptPending;
+
+    /**
+     * Runs a refresh pass
+     */
+    private final Runnable mPassRunnable = new Runnable() {
+        public void run() {
+            mNextPass = 0;
+            refreshDue();
+        }
+    };
+
+    /**
+     * Constructs a coordinator with the default batching window
+     */
+    public BurstlyRefreshCoordinator() {
+        this(DEFAULT_BATCH_WINDOW);
+    }
+
+    /**
+     * Constructs a coordinator
+     * @param batchWindow Refreshes due within this many ms of each other are sent together
+     */
+    public BurstlyRefreshCoordinator(long batchWindow) {
+        if(batchWindow < 0)
+            throw new IllegalArgumentException("Batch window must not be negative");
+
+        mBatchWindow = batchWindow;
+        mPassTimer = new TimerWheel.Timer(this, null, mPassRunnable);
+    }
+
+    /**
+     * Called by {@link Burstly} when the coordinator is installed.  Adopts every live banner and aligns their refreshes.
+     */
+    void install() {
+        mInstalled = true;
+        adoptLiveBanners();
+    }
+
+    /**
+     * Called by {@link Burstly} when the coordinator is uninstalled.  Hands refreshing back to every banner.
+     */
+    void uninstall() {
+        mInstalled = false;
+        mAdoptPending = false;
+
+        for(final Map.Entry<BurstlyBaseAd, Entry> mapEntry : mEntries.entrySet()) {
+            final BurstlyBaseAd ad = mapEntry.getKey();
+
+            if(ad != null)
+                release(ad, mapEntry.getValue());
+        }
+
+        mEntries.clear();
+        TimerWheel.get().cancel(mPassTimer);
+        mNextPass = 0;
+    }
+
+    /**
+     * Called by {@link Burstly} when a placement's {@link com.burstly.lib.ui.BurstlyView} is created.  The placement is
+     * adopted on the next pass, once it has finished setting up its refresh rate.
+     * @param ad The placement
+     */
+    void placementCreated(final BurstlyBaseAd ad) {
+        if(!mInstalled || !isBanner(ad))
+            return;
+
+        mAdoptPending = true;
+        schedule(SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Called by {@link Burstly} when a placement is destroyed
+     * @param ad The placement
+     */
+    void placementDestroyed(final BurstlyBaseAd ad) {
+        mEntries.remove(ad);
+    }
+
+    /**
+     * Gets whether a placement is a banner the coordinator refreshes
+     * @param ad The placement
+     * @return true for {@link BurstlyBanner} and {@link BurstlyAnimatedBanner}
+     */
+    private static boolean isBanner(final BurstlyBaseAd ad) {
+        return (ad instanceof BurstlyBanner) || (ad instanceof BurstlyAnimatedBanner);
+    }
+
+    /**
+     * Starts coordinating every live banner which isn't coordinated yet
+     */
+    private void adoptLiveBanners() {
+        mAdoptPending = false;
+        Burstly.getLivePlacements(mLive);
+
+        for(int i = 0; i < mLive.size(); i++) {
+            final BurstlyBaseAd ad = mLive.get(i);
+
+            if(!isBanner(ad) || ad.isDestroyed() || !ad.hasBurstlyView() || mEntries.containsKey(ad))
+                continue;
+
+            if(ad instanceof BurstlyAnimatedBanner) {
+                final BurstlyAnimatedBanner banner = (BurstlyAnimatedBanner)ad;
+                adopt(banner, banner.getRefreshRate(), banner.isVisible() ? banner.getRefreshRate() : banner.getBurstlyView().getDefaultSessionLife());
+            }
+            else {
+                final int sessionLife = ad.getBurstlyView().getDefaultSessionLife();
+                adopt(ad, sessionLife, sessionLife);
+            }
+        }
+
+        mLive.clear();
+    }
+
+    /**
+     * Start coordinating refreshes for a banner
+     * @param ad The banner
+     * @param refreshSeconds The banner's refresh interval in seconds
+     * @param originalSessionLife The session life to restore when the banner is released
+     */
+    private void adopt(final BurstlyBaseAd ad, int refreshSeconds, int originalSessionLife) {
+        final long interval = ((refreshSeconds > 0) ? refreshSeconds : DEFAULT_REFRESH_SECONDS) * 1000L;
+        final Entry entry = new Entry(interval, originalSessionLife);
+        entry.mNextRefresh = align(entry, SystemClock.elapsedRealtime() + interval);
+
+        mEntries.put(ad, entry);
+        ad.setRefreshCoordinated(true);
+        ad.getBurstlyView().setDefaultSessionLife(0);
+
+        schedule(entry.mNextRefresh);
+    }
+
+    /**
+     * Hands refreshing back to a banner's {@link com.burstly.lib.ui.BurstlyView}
+     * @param ad The banner
+     * @param entry The banner's tracking data
+     */
+    private static void release(final BurstlyBaseAd ad, final Entry entry) {
+        ad.setRefreshCoordinated(false);
+
+        if(!ad.isDestroyed())
+            ad.getBurstlyView().setDefaultSessionLife(entry.mOriginalSessionLife);
+    }
+
+    /**
+     * Aligns a refresh time with the earliest upcoming refresh of another banner due within the batching window either
+     * side of it.  A banner may refresh up to one batching window early so that it joins an existing batch.
+     * @param self The entry being scheduled, which is ignored
+     * @param time The time the refresh is due
+     * @return The time the refresh should be sent
+     */
+    private long align(final Entry self, long time) {
+        final long now = SystemClock.elapsedRealtime();
+        long aligned = time;
+
+        for(final Entry entry : mEntries.values()) {
+            if(entry == self || entry.mNextRefresh <= now)
+                continue;
+
+            if(Math.abs(entry.mNextRefresh - time) <= mBatchWindow && entry.mNextRefresh < aligned)
+                aligned = entry.mNextRefresh;
+        }
+
+        return aligned;
+    }
+
+    /**
+     * Make sure a refresh pass runs no later than the given time
+     * @param time Time based on {@link SystemClock#elapsedRealtime()}
+     */
+    private void schedule(long time) {
+        if(mNextPass != 0 && mNextPass <= time)
+            return;
+
+        TimerWheel.get().schedule(mPassTimer, Math.max(0, time - SystemClock.elapsedRealtime()));
+        mNextPass = time;
+    }
+
+    /**
+     * Gets whether a banner should be refreshed now
+     * @param ad The banner
+     * @return true if the banner is showing an ad on screen and its host is resumed
+     */
+    private static boolean canRefresh(final BurstlyBaseAd ad) {
+        if(ad.isHostPaused() || ad.mLastShow == null)
+            return false;
+
+        if(ad instanceof BurstlyAnimatedBanner && ((BurstlyAnimatedBanner)ad).getState() != BurstlyAnimatedBanner.State.OnScreen)
+            return false;
+
+        return ad.getBurstlyView().isShown();
+    }
+
+    /**
+     * Refresh every banner due within the batching window and schedule the next pass
+     */
+    private void refreshDue() {
+        if(mAdoptPending)
+            adoptLiveBanners();
+
+        final long now = SystemClock.elapsedRealtime();
+        final long horizon = now + mBatchWindow;
+        long next = Long.MAX_VALUE;
+
+        final Iterator<Map.Entry<BurstlyBaseAd, Entry>> iterator = mEntries.entrySet().iterator();
+
+        while(iterator.hasNext()) {
+            final Map.Entry<BurstlyBaseAd, Entry> mapEntry = iterator.next();
+            final BurstlyBaseAd ad = mapEntry.getKey();
+            final Entry entry = mapEntry.getValue();
+
+            if(ad == null || ad.isDestroyed()) {
+                iterator.remove();
+                continue;
+            }
+
+            if(entry.mNextRefresh <= horizon) {
+                //banners which can't refresh now skip this refresh and try again next interval
+                if(ad.isViewportSuspended())
+                    ad.refreshMissed();
+                else if(canRefresh(ad))
+                    mDue.add(ad);
+
+                entry.mNextRefresh = now + entry.mInterval;
+                mRescheduled.add(entry);
+            }
+        }
+
+        //banners with different intervals drift apart, so align each rescheduled refresh with the others again
+        for(int i = 0; i < mRescheduled.size(); i++) {
+            final Entry entry = mRescheduled.get(i);
+            entry.mNextRefresh = align(entry, entry.mNextRefresh);
+        }
+
+        mRescheduled.clear();
+
+        for(final Entry entry : mEntries.values())
+            next = Math.min(next, entry.mNextRefresh);
+
+        for(int i = 0; i < mDue.size(); i++)
+            mDue.get(i).baseRefreshAd();
+
+        if(!mDue.isEmpty())
+            Burstly.logD("Refreshed " + mDue.size() + " banners together.");
+
+        mDue.clear();
+
+        if(next != Long.MAX_VALUE)
+            schedule(next);
+    }
+}
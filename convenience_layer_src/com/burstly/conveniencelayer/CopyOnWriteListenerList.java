@@ -0,0 +1,180 @@
+package com.burstly.conveniencelayer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A copy on write list of listeners.  Adding and removing listeners replaces the backing array, so event dispatch can
+ * walk the array returned by {@link #snapshot()} without locking, without allocating an iterator, and without being
+ * affected by listeners adding or removing listeners while an event is being delivered.
+ *
+ * The list can also be used through the {@link java.util.List} interface.  Every modification replaces the snapshot and
+ * iterators walk the snapshot taken when they were created.
+ *
+ * @param <T> The listener type
+ */
+final class CopyOnWriteListenerList<T> extends AbstractList<T> {
+    /**
+     * Lock guarding modifications.  Dispatch never takes it.
+     */
+    private final Object mLock = new Object();
+
+    /**
+     * Empty array used when the list is cleared
+     */
+    private final T[] mEmpty;
+
+    /**
+     * The current immutable snapshot of listeners
+     */
+    private volatile T[] mListeners;
+
+    /**
+     * Constructs an empty list
+     * @param empty A zero length array of the listener type used as the initial snapshot
+     */
+    CopyOnWriteListenerList(final T[] empty) {
+        if(empty.length != 0)
+            throw new IllegalArgumentException("Initial listener array must be empty");
+
+        mEmpty = empty;
+        mListeners = empty;
+    }
+
+    /**
+     * Adds a listener to the end of the list
+     * @param listener The listener being added
+     * @return true
+     */
+    @Override
+    public boolean add(final T listener) {
+        add(size(), listener);
+        return true;
+    }
+
+    /**
+     * Inserts a listener into the list
+     * @param index Position the listener is inserted at
+     * @param listener The listener being added
+     */
+    @Override
+    public void add(int index, final T listener) {
+        synchronized(mLock) {
+            final T[] current = mListeners;
+
+            if(index < 0 || index > current.length)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.length);
+
+            final T[] updated = Arrays.copyOf(current, current.length + 1);
+            System.arraycopy(current, index, updated, index + 1, current.length - index);
+            updated[index] = listener;
+
+            mListeners = updated;
+        }
+    }
+
+    /**
+     * Replaces a listener
+     * @param index Position of the listener being replaced
+     * @param listener The new listener
+     * @return The listener which was replaced
+     */
+    @Override
+    public T set(int index, final T listener) {
+        synchronized(mLock) {
+            final T[] updated = mListeners.clone();
+            final T previous = updated[index];
+            updated[index] = listener;
+
+            mListeners = updated;
+            return previous;
+        }
+    }
+
+    /**
+     * Removes a listener by position
+     * @param index Position of the listener being removed
+     * @return The removed listener
+     */
+    @Override
+    public T remove(int index) {
+        synchronized(mLock) {
+            final T[] current = mListeners;
+            final T previous = current[index];
+
+            final T[] updated = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+
+            mListeners = updated;
+            return previous;
+        }
+    }
+
+    /**
+     * Removes the first occurrence of a listener from the list
+     * @param listener The listener being removed
+     * @return true if the listener was found, false otherwise
+     */
+    @Override
+    public boolean remove(final Object listener) {
+        synchronized(mLock) {
+            final T[] current = mListeners;
+
+            for(int i = 0; i < current.length; i++) {
+                if(current[i] == listener || (listener != null && listener.equals(current[i]))) {
+                    remove(i);
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Removes all listeners
+     */
+    @Override
+    public void clear() {
+        synchronized(mLock) {
+            mListeners = mEmpty;
+        }
+    }
+
+    /**
+     * Gets a listener by position
+     * @param index Position of the listener
+     * @return The listener
+     */
+    @Override
+    public T get(int index) {
+        return mListeners[index];
+    }
+
+    /**
+     * Gets an iterator over the current snapshot.  It is unaffected by later modifications and doesn't support remove.
+     * @return Iterator over the listeners
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return Arrays.asList(mListeners).iterator();
+    }
+
+    /**
+     * Gets the current listeners.  The returned array must not be modified.
+     * @return The current snapshot of listeners
+     */
+    T[] snapshot() {
+        return mListeners;
+    }
+
+    /**
+     * Gets the number of listeners
+     * @return The number of listeners in the current snapshot
+     */
+    @Override
+    public int size() {
+        return mListeners.length;
+    }
+}
@@ -0,0 +1,141 @@
+package com.burstly.conveniencelayer;
+
+import android.os.Handler;
+import com.burstly.conveniencelayer.events.*;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Wraps an {@link IBurstlyListener} so that its callbacks are delivered on an {@link Executor} instead of
+ * synchronously on the ui thread.  Events are delivered in the order they occurred as long as the executor runs
+ * tasks in order.
+ */
+final class ExecutorBurstlyListener implements IBurstlyListener {
+    /**
+     * Shared executor used for {@link BurstlyBaseAd.Delivery#Background} listeners
+     */
+    private static ExecutorService sBackgroundExecutor;
+
+    /**
+     * Gets the shared background executor, creating it the first time it is needed.  A single low priority thread is
+     * used so background listeners receive events in order.
+     * @return The shared background {@link Executor}
+     */
+    static synchronized Executor getBackgroundExecutor() {
+        if(sBackgroundExecutor == null) {
+            sBackgroundExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Burstly Listener Delivery");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+
+        return sBackgroundExecutor;
+    }
+
+    /**
+     * Creates an {@link Executor} which posts tasks to a {@link Handler}
+     * @param handler The {@link Handler} tasks will be posted to
+     * @return {@link Executor} running tasks on the handler's thread
+     */
+    static Executor fromHandler(final Handler handler) {
+        return new Executor() {
+            public void execute(final Runnable runnable) {
+                handler.post(runnable);
+            }
+        };
+    }
+
+    /**
+     * The listener receiving the callbacks
+     */
+    private final IBurstlyListener mListener;
+
+    /**
+     * The executor the callbacks are run on
+     */
+    private final Executor mExecutor;
+
+    /**
+     * Constructs an ExecutorBurstlyListener
+     * @param listener The {@link IBurstlyListener} receiving the callbacks
+     * @param executor The {@link Executor} the callbacks are run on
+     */
+    ExecutorBurstlyListener(final IBurstlyListener listener, final Executor executor) {
+        if(listener == null || executor == null)
+            throw new IllegalArgumentException("listener and executor must not be null");
+
+        mListener = listener;
+        mExecutor = executor;
+    }
+
+    /**
+     * Gets the wrapped listener
+     * @return The {@link IBurstlyListener} receiving the callbacks
+     */
+    IBurstlyListener getListener() {
+        return mListener;
+    }
+
+    public void onHide(final BurstlyBaseAd ad, final AdHideEvent event) {
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                mListener.onHide(ad, event);
+            }
+        });
+    }
+
+    public void onShow(final BurstlyBaseAd ad, final AdShowEvent event) {
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                mListener.onShow(ad, event);
+            }
+        });
+    }
+
+    public void onFail(final BurstlyBaseAd ad, final AdFailEvent event) {
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                mListener.onFail(ad, event);
+            }
+        });
+    }
+
+    public void onCache(final BurstlyBaseAd ad, final AdCacheEvent event) {
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                mListener.onCache(ad, event);
+            }
+        });
+    }
+
+    public void onClick(final BurstlyBaseAd ad, final AdClickEvent event) {
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                mListener.onClick(ad, event);
+            }
+        });
+    }
+
+    public void onPresentFullscreen(final BurstlyBaseAd ad, final AdPresentFullscreenEvent event) {
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                mListener.onPresentFullscreen(ad, event);
+            }
+        });
+    }
+
+    public void onDismissFullscreen(final BurstlyBaseAd ad, final AdDismissFullscreenEvent event) {
+        mExecutor.execute(new Runnable() {
+            public void run() {
+                mListener.onDismissFullscreen(ad, event);
+            }
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.burstly.conveniencelayer;
+
+import com.burstly.conveniencelayer.events.AdFailEvent;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Default {@link IRetryPolicy} which waits exponentially longer after each consecutive failure, randomized by a jitter
+ * factor so placements don't retry in lock step.  Each zone's recent fill rate is tracked and zones which rarely fill
+ * wait longer between retries.  Throttled requests always wait at least as long as the server requires.
+ */
+public class ExponentialBackoffRetryPolicy implements IRetryPolicy {
+    /**
+     * Defaults
+     */
+    public static final long DEFAULT_BASE_DELAY = 5 * 1000;
+    public static final long DEFAULT_MAX_DELAY = 5 * 60 * 1000;
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+    public static final float DEFAULT_JITTER = 0.5f;
+
+    /**
+     * Weight given to the newest result when updating a zone's fill rate
+     */
+    private static final float FILL_RATE_WEIGHT = 0.2f;
+
+    /**
+     * Delays are multiplied by up to this much more for zones which never fill
+     */
+    private static final float FILL_RATE_PENALTY = 3.0f;
+
+    private final long mBaseDelay;
+    private final long mMaxDelay;
+    private final int mMaxAttempts;
+    private final float mJitter;
+
+    /**
+     * Recent fill rate per zone, 0.0f - 1.0f
+     */
+    private final HashMap<String, Float> mFillRates = new HashMap<String, Float>();
+
+    private final Random mRandom = new Random();
+
+    /**
+     * Constructs a policy with the default settings
+     */
+    public ExponentialBackoffRetryPolicy() {
+        this(DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, DEFAULT_MAX_ATTEMPTS, DEFAULT_JITTER);
+    }
+
+    /**
+     * Constructs a policy
+     * @param baseDelay Delay in ms after the first failure
+     * @param maxDelay Maximum delay in ms before fill rate and jitter are applied
+     * @param maxAttempts Number of consecutive failures after which retrying stops.  0 for no limit.
+     * @param jitter Fraction of the delay which is randomized, 0.0f - 1.0f
+     */
+    public ExponentialBackoffRetryPolicy(long baseDelay, long maxDelay, int maxAttempts, float jitter) {
+        if(baseDelay < 0 || maxDelay < baseDelay || maxAttempts < 0 || jitter < 0.0f || jitter > 1.0f)
+            throw new IllegalArgumentException("Invalid retry policy settings");
+
+        mBaseDelay = baseDelay;
+        mMaxDelay = maxDelay;
+        mMaxAttempts = maxAttempts;
+        mJitter = jitter;
+    }
+
+    public synchronized long getRetryDelay(final BurstlyBaseAd ad, final AdFailEvent event, int attempt) {
+        if(!event.wasRequestThrottled())
+            updateFillRate(ad.getZoneId(), false);
+
+        if(mMaxAttempts > 0 && attempt > mMaxAttempts)
+            return -1;
+
+        long delay = mBaseDelay << Math.min(attempt - 1, 30);
+
+        if(delay > mMaxDelay || delay < 0)
+            delay = mMaxDelay;
+
+        delay = (long)(delay * (1.0f + (1.0f - getFillRate(ad.getZoneId())) * (FILL_RATE_PENALTY - 1.0f)));
+        delay -= (long)(delay * mJitter * mRandom.nextFloat());
+
+        return Math.max(delay, event.getMinTimeUntilNextRequest());
+    }
+
+    public synchronized void onFilled(final BurstlyBaseAd ad) {
+        updateFillRate(ad.getZoneId(), true);
+    }
+
+    /**
+     * Gets the recent fill rate for a zone
+     * @param zoneId The zone
+     * @return fill rate 0.0f - 1.0f.  Zones with no results are treated as always filling.
+     */
+    public synchronized float getFillRate(final String zoneId) {
+        final Float rate = mFillRates.get(zoneId);
+        return (rate != null) ? rate : 1.0f;
+    }
+
+    /**
+     * Moves a zone's fill rate towards the latest result
+     * @param zoneId The zone
+     * @param filled true if the request filled
+     */
+    private void updateFillRate(final String zoneId, boolean filled) {
+        final float rate = getFillRate(zoneId);
+        mFillRates.put(zoneId, rate + FILL_RATE_WEIGHT * ((filled ? 1.0f : 0.0f) - rate));
+    }
+}
@@ -0,0 +1,68 @@
+package com.burstly.conveniencelayer;
+
+import java.util.Arrays;
+
+/**
+ * Records the networks which failed during a single request as an ordered array of {@link NetworkRegistry} ids.  The
+ * recorder is cleared and reused for every request, so recording a waterfall doesn't allocate once the array has
+ * grown to fit the zone's waterfall.
+ */
+final class FailedNetworkRecorder {
+    /**
+     * Failed network ids in the order they failed
+     */
+    private short[] mIds = new short[8];
+
+    /**
+     * Number of ids recorded
+     */
+    private int mCount;
+
+    /**
+     * Clears the recorder for a new request
+     */
+    void clear() {
+        mCount = 0;
+    }
+
+    /**
+     * Records a failed network
+     * @param network The network name
+     */
+    void add(final String network) {
+        final int id = NetworkRegistry.getId(network);
+
+        if(id == NetworkRegistry.NO_NETWORK)
+            return;
+
+        if(mCount == mIds.length)
+            mIds = Arrays.copyOf(mIds, mCount * 2);
+
+        mIds[mCount++] = (short)id;
+    }
+
+    /**
+     * Gets the number of failures recorded
+     * @return The number of failed networks including repeats
+     */
+    int size() {
+        return mCount;
+    }
+
+    /**
+     * Gets a recorded network id
+     * @param index The position in the order networks failed
+     * @return The network id
+     */
+    int getId(int index) {
+        return mIds[index];
+    }
+
+    /**
+     * Copies the recorded failures into a read-only list
+     * @return A new {@link NetworkIdList}
+     */
+    NetworkIdList toList() {
+        return (mCount == 0) ? NetworkIdList.EMPTY : new NetworkIdList(Arrays.copyOf(mIds, mCount));
+    }
+}
@@ -0,0 +1,23 @@
+package com.burstly.conveniencelayer;
+
+import com.burstly.conveniencelayer.events.AdFailEvent;
+
+/**
+ * IRetryPolicy decides how long an automatically cached placement waits before retrying after a failed precache
+ */
+public interface IRetryPolicy {
+    /**
+     * Called when a precache attempt for an automatically cached ad fails
+     * @param ad The ad which failed to cache
+     * @param event {@link AdFailEvent} containing data on the failure
+     * @param attempt The number of consecutive failures for this ad, starting at 1
+     * @return The number of ms to wait before retrying, or a negative number to stop retrying
+     */
+    long getRetryDelay(final BurstlyBaseAd ad, final AdFailEvent event, int attempt);
+
+    /**
+     * Called when an ad is successfully cached
+     * @param ad The ad which cached a creative
+     */
+    void onFilled(final BurstlyBaseAd ad);
+}
@@ -0,0 +1,311 @@
+package com.burstly.conveniencelayer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * LifecycleRegistry keeps track of the listeners associated with each lifecycle owner ({@link android.app.Activity}
+ * or {@link android.support.v4.app.Fragment}).  Each listener is indexed back to the node holding it so that add,
+ * remove and dispatch are constant time per listener.
+ *
+ * Both owners and listeners are held weakly, and whoever registers a listener must keep it reachable for as long as it
+ * should receive events.  Listeners usually reach their owner strongly, for example a placement's listener reaches the
+ * placement, which holds its activity or fragment.  Holding either side strongly would let this static registry reach
+ * its own weak keys, so an owner which is never destroyed could never be collected.  With both held weakly the chain is
+ * owner -> placement -> listener, and once the app drops the owner the whole chain is collected and its registrations
+ * are purged.
+ *
+ * A listener is associated with a single owner at a time.  Adding it to a new owner moves it.
+ *
+ * This class is not thread safe and should only be used from the ui thread.
+ *
+ * @param <O> The lifecycle owner type
+ * @param <L> The listener type
+ */
+final class LifecycleRegistry<O, L> {
+    /**
+     * Callback used to deliver a single lifecycle event to a single listener
+     * @param <O> The lifecycle owner type
+     * @param <L> The listener type
+     */
+    interface Dispatcher<O, L> {
+        /**
+         * Deliver the event
+         * @param owner The owner the event occurred on
+         * @param listener The listener receiving the event
+         */
+        void dispatch(final O owner, final L listener);
+    }
+
+    /**
+     * A single registration in an owner's doubly linked list of listeners.  Refers to its listener weakly.
+     */
+    private static final class Node<L> extends WeakReference<L> {
+        /**
+         * The list this node belongs to
+         */
+        final ListenerList<L> mList;
+
+        /**
+         * Previous and next nodes in the list.  mNext is left intact when a node is unlinked so that a dispatch which
+         * is currently visiting the node can continue walking the list.
+         */
+        Node<L> mPrev;
+        Node<L> mNext;
+
+        /**
+         * Set once the node has been unlinked
+         */
+        boolean mRemoved;
+
+        Node(final L listener, final ListenerList<L> list, final ReferenceQueue<L> queue) {
+            super(listener, queue);
+            mList = list;
+        }
+    }
+
+    /**
+     * Weak reference to an owner which remembers the owner's listeners so they can be dropped once it is collected
+     */
+    private static final class OwnerReference<O, L> extends WeakReference<O> {
+        final ListenerList<L> mList;
+
+        OwnerReference(final O owner, final ListenerList<L> list, final ReferenceQueue<O> queue) {
+            super(owner, queue);
+            mList = list;
+        }
+    }
+
+    /**
+     * The listeners registered with a single owner
+     */
+    private static final class ListenerList<L> {
+        /**
+         * Keeps the owner's reference reachable until it is enqueued
+         */
+        OwnerReference<?, L> mOwnerRef;
+
+        Node<L> mHead;
+        Node<L> mTail;
+
+        /**
+         * Appends a node to the end of the list
+         * @param node The {@link Node} being added
+         */
+        void append(final Node<L> node) {
+            node.mPrev = mTail;
+
+            if(mTail != null)
+                mTail.mNext = node;
+            else
+                mHead = node;
+
+            mTail = node;
+        }
+
+        /**
+         * Unlinks a node from the list.  The node's next pointer is preserved for in progress dispatches.
+         * @param node The {@link Node} being removed
+         */
+        void unlink(final Node<L> node) {
+            if(node.mRemoved)
+                return;
+
+            node.mRemoved = true;
+
+            if(node.mPrev != null)
+                node.mPrev.mNext = node.mNext;
+            else
+                mHead = node.mNext;
+
+            if(node.mNext != null)
+                node.mNext.mPrev = node.mPrev;
+            else
+                mTail = node.mPrev;
+        }
+    }
+
+    /**
+     * Map of owners to the listeners registered with them
+     */
+    private final WeakHashMap<O, ListenerList<L>> mOwners = new WeakHashMap<O, ListenerList<L>>();
+
+    /**
+     * Reverse index from each listener to its registration
+     */
+    private final WeakHashMap<L, Node<L>> mNodes = new WeakHashMap<L, Node<L>>();
+
+    /**
+     * Owners which have been garbage collected while they still had listeners
+     */
+    private final ReferenceQueue<O> mCollected = new ReferenceQueue<O>();
+
+    /**
+     * Registrations whose listener has been garbage collected
+     */
+    private final ReferenceQueue<L> mCollectedListeners = new ReferenceQueue<L>();
+
+    /**
+     * Registers a listener with an owner
+     * @param owner The owner whose events the listener will receive
+     * @param listener The listener being added
+     */
+    void add(final O owner, final L listener) {
+        purge();
+
+        ListenerList<L> list = mOwners.get(owner);
+
+        if(list == null) {
+            list = new ListenerList<L>();
+            list.mOwnerRef = new OwnerReference<O, L>(owner, list, mCollected);
+            mOwners.put(owner, list);
+        }
+
+        final Node<L> existing = mNodes.get(listener);
+
+        if(existing != null) {
+            if(existing.mList == list)
+                return;
+
+            existing.mList.unlink(existing);
+        }
+
+        final Node<L> node = new Node<L>(listener, list, mCollectedListeners);
+        list.append(node);
+        mNodes.put(listener, node);
+    }
+
+    /**
+     * Removes a listener from the specified owner.  Does nothing if the listener is registered with another owner.
+     * @param owner The owner the listener was registered with
+     * @param listener The listener being removed
+     */
+    void remove(final O owner, final L listener) {
+        final Node<L> node = mNodes.get(listener);
+
+        if(node != null && node.mList == mOwners.get(owner)) {
+            node.mList.unlink(node);
+            mNodes.remove(listener);
+        }
+    }
+
+    /**
+     * Removes a listener from whichever owner it is registered with
+     * @param listener The listener being removed
+     */
+    void remove(final L listener) {
+        final Node<L> node = mNodes.remove(listener);
+
+        if(node != null)
+            node.mList.unlink(node);
+    }
+
+    /**
+     * Delivers an event to every listener registered with the owner.  Listeners may add or remove listeners while the
+     * event is being dispatched.
+     * @param owner The owner the event occurred on
+     * @param dispatcher The {@link Dispatcher} delivering the event
+     */
+    void dispatch(final O owner, final Dispatcher<O, L> dispatcher) {
+        final ListenerList<L> list = mOwners.get(owner);
+
+        if(list == null)
+            return;
+
+        Node<L> node = list.mHead;
+
+        while(node != null) {
+            final Node<L> next = node.mNext;
+            final L listener = node.get();
+
+            if(!node.mRemoved && listener != null)
+                dispatcher.dispatch(owner, listener);
+
+            node = next;
+        }
+    }
+
+    /**
+     * Delivers an event to every listener registered with the owner and then removes the owner and all of its
+     * listeners.  Listeners are notified in reverse order of registration.
+     * @param owner The owner the event occurred on
+     * @param dispatcher The {@link Dispatcher} delivering the event
+     */
+    void dispatchAndRemove(final O owner, final Dispatcher<O, L> dispatcher) {
+        final ListenerList<L> list = mOwners.remove(owner);
+
+        if(list == null)
+            return;
+
+        Node<L> node = list.mTail;
+
+        while(node != null) {
+            list.unlink(node);
+
+            final L listener = node.get();
+
+            if(listener != null) {
+                if(mNodes.get(listener) == node)
+                    mNodes.remove(listener);
+
+                dispatcher.dispatch(owner, listener);
+            }
+
+            node = list.mTail;
+        }
+    }
+
+    /**
+     * Gets whether any owner currently has registered listeners
+     * @return true if there are no registered listeners, false otherwise
+     */
+    boolean isEmpty() {
+        purge();
+        return mNodes.isEmpty();
+    }
+
+    /**
+     * Removes all owners and listeners
+     */
+    void clear() {
+        mOwners.clear();
+        mNodes.clear();
+
+        while(mCollected.poll() != null) {
+        }
+
+        while(mCollectedListeners.poll() != null) {
+        }
+    }
+
+    /**
+     * Drops the listeners of owners which were garbage collected without being destroyed, and the registrations of
+     * listeners which were garbage collected without being removed
+     */
+    private void purge() {
+        Reference<? extends O> ref;
+
+        while((ref = mCollected.poll()) != null) {
+            final ListenerList<L> list = ((OwnerReference<?, L>)ref).mList;
+
+            for(Node<L> node = list.mHead; node != null; node = list.mHead) {
+                list.unlink(node);
+
+                final L listener = node.get();
+
+                if(listener != null && mNodes.get(listener) == node)
+                    mNodes.remove(listener);
+            }
+        }
+
+        Reference<? extends L> listenerRef;
+
+        //the weak index drops collected listeners by itself, only the list links need removing
+        while((listenerRef = mCollectedListeners.poll()) != null) {
+            final Node<L> node = (Node<L>)listenerRef;
+            node.mList.unlink(node);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.burstly.conveniencelayer;
+
+import android.app.Activity;
+import android.support.v4.app.Fragment;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.WeakHashMap;
+
+/**
+ * LifecycleTree indexes lifecycle listeners as a tree of activities and the fragments inside them.  Each fragment which
+ * has listeners is a child of the activity it was attached to when its first listener was added.  Pausing, resuming or
+ * destroying an activity reaches its own listeners and the listeners of all of its fragments in a single pass, so
+ * fragment placements follow their activity even if the fragment doesn't report its own lifecycle.
+ *
+ * A fragment is paused while either it or its activity is paused.  Each node remembers the state it last delivered and
+ * only delivers changes, so an event reported both by a base class such as {@link BurstlyFragment} and through its
+ * activity reaches the listeners once.
+ *
+ * Owners and listeners are held weakly, as in {@link LifecycleRegistry}.  This class is not thread safe and should only
+ * be used from the ui thread.
+ */
+final class LifecycleTree {
+    /**
+     * Lifecycle state of an activity or fragment
+     */
+    private static class Node {
+        /**
+         * Has a pause or resume been delivered to the listeners yet
+         */
+        boolean mDelivered;
+
+        /**
+         * Was the last event delivered a pause
+         */
+        boolean mPaused;
+    }
+
+    /**
+     * An activity and the fragments within it
+     */
+    private static final class ActivityNode extends Node {
+        final ArrayList<FragmentNode> mChildren = new ArrayList<FragmentNode>();
+    }
+
+    /**
+     * A fragment within an activity
+     */
+    private static final class FragmentNode extends Node {
+        /**
+         * The fragment
+         */
+        final WeakReference<Fragment> mFragment;
+
+        /**
+         * The activity the fragment belongs to, or null if it wasn't attached to one
+         */
+        ActivityNode mParent;
+
+        /**
+         * Has the fragment itself reported a pause
+         */
+        boolean mSelfPaused;
+
+        FragmentNode(final Fragment fragment) {
+            mFragment = new WeakReference<Fragment>(fragment);
+        }
+    }
+
+    /**
+     * Dispatchers used to pass lifecycle events on to the registered listeners
+     */
+    private static final LifecycleRegistry.Dispatcher<Activity, IActivityListener> ACTIVITY_PAUSED = new LifecycleRegistry.Dispatcher<Activity, IActivityListener>() {
+        public void dispatch(final Activity activity, final IActivityListener listener) {
+            listener.activityPaused(activity);
+        }
+    };
+
+    private static final LifecycleRegistry.Dispatcher<Activity, IActivityListener> ACTIVITY_RESUMED = new LifecycleRegistry.Dispatcher<Activity, IActivityListener>() {
+        public void dispatch(final Activity activity, final IActivityListener listener) {
+            listener.activityResumed(activity);
+        }
+    };
+
+    private static final LifecycleRegistry.Dispatcher<Activity, IActivityListener> ACTIVITY_DESTROYED = new LifecycleRegistry.Dispatcher<Activity, IActivityListener>() {
+        public void dispatch(final Activity activity, final IActivityListener listener) {
+            listener.activityDestroyed(activity);
+        }
+    };
+
+    private static final LifecycleRegistry.Dispatcher<Fragment, IFragmentListener> FRAGMENT_PAUSED = new LifecycleRegistry.Dispatcher<Fragment, IFragmentListener>() {
+        public void dispatch(final Fragment fragment, final IFragmentListener listener) {
+            listener.fragmentPaused(fragment);
+        }
+    };
+
+    private static final LifecycleRegistry.Dispatcher<Fragment, IFragmentListener> FRAGMENT_RESUMED = new LifecycleRegistry.Dispatcher<Fragment, IFragmentListener>() {
+        public void dispatch(final Fragment fragment, final IFragmentListener listener) {
+            listener.fragmentResumed(fragment);
+        }
+    };
+
+    private static final LifecycleRegistry.Dispatcher<Fragment, IFragmentListener> FRAGMENT_DESTROYED = new LifecycleRegistry.Dispatcher<Fragment, IFragmentListener>() {
+        public void dispatch(final Fragment fragment, final IFragmentListener listener) {
+            listener.fragmentDestroyed(fragment);
+        }
+    };
+
+    /**
+     * Listeners registered with each activity and fragment
+     */
+    private final LifecycleRegistry<Activity, IActivityListener> mActivityListeners = new LifecycleRegistry<Activity, IActivityListener>();
+    private final LifecycleRegistry<Fragment, IFragmentListener> mFragmentListeners = new LifecycleRegistry<Fragment, IFragmentListener>();
+
+    /**
+     * Tree nodes for each activity and fragment with listeners
+     */
+    private final WeakHashMap<Activity, ActivityNode> mActivities = new WeakHashMap<Activity, ActivityNode>();
+    private final WeakHashMap<Fragment, FragmentNode> mFragments = new WeakHashMap<Fragment, FragmentNode>();
+
+    /**
+     * Registers a listener with an activity
+     * @param activity The {@link Activity} whose events the listener will receive
+     * @param listener The {@link IActivityListener} being added
+     */
+    void addActivityListener(final Activity activity, final IActivityListener listener) {
+        mActivityListeners.add(activity, listener);
+        activityNode(activity);
+    }
+
+    /**
+     * Removes a listener from an activity
+     * @param activity The {@link Activity} the listener was registered with
+     * @param listener The {@link IActivityListener} being removed
+     */
+    void removeActivityListener(final Activity activity, final IActivityListener listener) {
+        mActivityListeners.remove(activity, listener);
+    }
+
+    /**
+     * Removes a listener from whichever activity it is registered with
+     * @param listener The {@link IActivityListener} being removed
+     */
+    void removeActivityListener(final IActivityListener listener) {
+        mActivityListeners.remove(listener);
+    }
+
+    /**
+     * Registers a listener with a fragment, adding the fragment to the tree under its activity
+     * @param fragment The {@link Fragment} whose events the listener will receive
+     * @param listener The {@link IFragmentListener} being added
+     */
+    void addFragmentListener(final Fragment fragment, final IFragmentListener listener) {
+        mFragmentListeners.add(fragment, listener);
+
+        FragmentNode node = mFragments.get(fragment);
+
+        if(node == null) {
+            node = new FragmentNode(fragment);
+            mFragments.put(fragment, node);
+        }
+
+        final Activity activity = fragment.getActivity();
+
+        if(node.mParent == null && activity != null) {
+            node.mParent = activityNode(activity);
+            node.mParent.mChildren.add(node);
+        }
+    }
+
+    /**
+     * Removes a listener from a fragment
+     * @param fragment The {@link Fragment} the listener was registered with
+     * @param listener The {@link IFragmentListener} being removed
+     */
+    void removeFragmentListener(final Fragment fragment, final IFragmentListener listener) {
+        mFragmentListeners.remove(fragment, listener);
+    }
+
+    /**
+     * Removes a listener from whichever fragment it is registered with
+     * @param listener The {@link IFragmentListener} being removed
+     */
+    void removeFragmentListener(final IFragmentListener listener) {
+        mFragmentListeners.remove(listener);
+    }
+
+    /**
+     * Pauses an activity and every fragment within it
+     * @param activity The {@link Activity} being paused
+     */
+    void pauseActivity(final Activity activity) {
+        setActivityPaused(activity, true);
+    }
+
+    /**
+     * Resumes an activity and every fragment within it which isn't paused itself
+     * @param activity The {@link Activity} being resumed
+     */
+    void resumeActivity(final Activity activity) {
+        setActivityPaused(activity, false);
+    }
+
+    /**
+     * Destroys every fragment within an activity and then the activity, removing them and their listeners
+     * @param activity The {@link Activity} being destroyed
+     */
+    void destroyActivity(final Activity activity) {
+        final ActivityNode node = mActivities.remove(activity);
+
+        if(node != null) {
+            for(int i = node.mChildren.size() - 1; i >= 0; i--) {
+                final FragmentNode child = node.mChildren.get(i);
+                child.mParent = null;
+
+                final Fragment fragment = child.mFragment.get();
+
+                if(fragment != null)
+                    destroyFragment(fragment);
+            }
+
+            node.mChildren.clear();
+        }
+
+        mActivityListeners.dispatchAndRemove(activity, ACTIVITY_DESTROYED);
+    }
+
+    /**
+     * Pauses a fragment
+     * @param fragment The {@link Fragment} being paused
+     */
+    void pauseFragment(final Fragment fragment) {
+        final FragmentNode node = mFragments.get(fragment);
+
+        if(node != null) {
+            node.mSelfPaused = true;
+            update(fragment, node);
+        }
+    }
+
+    /**
+     * Resumes a fragment unless its activity is paused
+     * @param fragment The {@link Fragment} being resumed
+     */
+    void resumeFragment(final Fragment fragment) {
+        final FragmentNode node = mFragments.get(fragment);
+
+        if(node != null) {
+            node.mSelfPaused = false;
+            update(fragment, node);
+        }
+    }
+
+    /**
+     * Destroys a fragment, removing it and its listeners
+     * @param fragment The {@link Fragment} being destroyed
+     */
+    void destroyFragment(final Fragment fragment) {
+        final FragmentNode node = mFragments.remove(fragment);
+
+        if(node != null && node.mParent != null) {
+            node.mParent.mChildren.remove(node);
+            node.mParent = null;
+        }
+
+        mFragmentListeners.dispatchAndRemove(fragment, FRAGMENT_DESTROYED);
+    }
+
+    /**
+     * Gets whether any activity or fragment currently has registered listeners
+     * @return true if there are no registered listeners, false otherwise
+     */
+    boolean isEmpty() {
+        return mActivityListeners.isEmpty() && mFragmentListeners.isEmpty();
+    }
+
+    /**
+     * Removes all owners and listeners
+     */
+    void clear() {
+        mActivityListeners.clear();
+        mFragmentListeners.clear();
+        mActivities.clear();
+        mFragments.clear();
+    }
+
+    /**
+     * Gets the node for an activity, creating it if needed
+     * @param activity The {@link Activity}
+     * @return The activity's node
+     */
+    private ActivityNode activityNode(final Activity activity) {
+        ActivityNode node = mActivities.get(activity);
+
+        if(node == null) {
+            node = new ActivityNode();
+            mActivities.put(activity, node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Delivers a pause or resume to an activity's listeners and then updates each of its fragments
+     * @param activity The {@link Activity}
+     * @param paused true if the activity paused
+     */
+    private void setActivityPaused(final Activity activity, boolean paused) {
+        final ActivityNode node = mActivities.get(activity);
+
+        //nothing registered with the activity or any of its fragments
+        if(node == null)
+            return;
+
+        if(!node.mDelivered || node.mPaused != paused) {
+            node.mDelivered = true;
+            node.mPaused = paused;
+            mActivityListeners.dispatch(activity, paused ? ACTIVITY_PAUSED : ACTIVITY_RESUMED);
+        }
+
+        final ArrayList<FragmentNode> children = node.mChildren;
+
+        for(int i = children.size() - 1; i >= 0; i--) {
+            final FragmentNode child = children.get(i);
+            final Fragment fragment = child.mFragment.get();
+
+            if(fragment == null)
+                children.remove(i);
+            else
+                update(fragment, child);
+        }
+    }
+
+    /**
+     * Delivers a pause or resume to a fragment's listeners if its effective state changed
+     * @param fragment The {@link Fragment}
+     * @param node The fragment's node
+     */
+    private void update(final Fragment fragment, final FragmentNode node) {
+        final boolean paused = node.mSelfPaused || (node.mParent != null && node.mParent.mDelivered && node.mParent.mPaused);
+
+        if(node.mDelivered && node.mPaused == paused)
+            return;
+
+        node.mDelivered = true;
+        node.mPaused = paused;
+        mFragmentListeners.dispatch(fragment, paused ? FRAGMENT_PAUSED : FRAGMENT_RESUMED);
+    }
+}
@@ -0,0 +1,50 @@
+package com.burstly.conveniencelayer;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of network names which also keeps the ordered {@link NetworkRegistry} ids of the networks so
+ * waterfalls can be compared without comparing strings.  It is shared between the events built from the same waterfall,
+ * which hand their callers copies of it.  Methods which would modify it throw {@link UnsupportedOperationException}.
+ */
+final class NetworkIdList extends AbstractList<String> implements RandomAccess {
+    /**
+     * An empty list
+     */
+    static final NetworkIdList EMPTY = new NetworkIdList(new short[0]);
+
+    private final short[] mIds;
+    private final String[] mNames;
+
+    /**
+     * Constructs a list.  The array is not copied and must not be modified afterwards.
+     * @param ids Network ids in list order
+     */
+    NetworkIdList(final short[] ids) {
+        mIds = ids;
+        mNames = new String[ids.length];
+
+        for(int i = 0; i < ids.length; i++)
+            mNames[i] = NetworkRegistry.getName(ids[i]);
+    }
+
+    /**
+     * Gets the network id at a position
+     * @param index The position in the list
+     * @return The network id
+     */
+    int getId(int index) {
+        return mIds[index];
+    }
+
+    @Override
+    public String get(int index) {
+        return mNames[index];
+    }
+
+    @Override
+    public int size() {
+        return mNames.length;
+    }
+}
@@ -0,0 +1,79 @@
+package com.burstly.conveniencelayer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Maps ad network names to small integer ids.  Network names come from a small fixed set, so recorded waterfalls store
+ * ids and can be compared without comparing strings.  Ids are assigned in the order networks are first seen and
+ * are never reused.  Names can be looked up from any thread without locking.
+ */
+final class NetworkRegistry {
+    /**
+     * Largest number of networks which can be registered
+     */
+    static final int MAX_NETWORKS = Short.MAX_VALUE;
+
+    /**
+     * Id returned for a null network name
+     */
+    static final int NO_NETWORK = -1;
+
+    private static final Object sLock = new Object();
+    private static final HashMap<String, Integer> sIds = new HashMap<String, Integer>();
+
+    /**
+     * Names indexed by id.  Replaced, never modified, when a network is added.
+     */
+    private static volatile String[] sNames = new String[0];
+
+    private NetworkRegistry() {
+    }
+
+    /**
+     * Gets the id for a network, registering it if it hasn't been seen before.  Only use this for networks being
+     * recorded, as every new name is kept for the life of the process.
+     * @param network The network name
+     * @return The network's id, or {@link #NO_NETWORK} if network is null
+     */
+    static int getId(final String network) {
+        if(network == null)
+            return NO_NETWORK;
+
+        synchronized(sLock) {
+            final Integer id = sIds.get(network);
+
+            if(id != null)
+                return id;
+
+            final String[] names = sNames;
+
+            if(names.length >= MAX_NETWORKS)
+                throw new RuntimeException("Too many ad networks registered");
+
+            final String[] updated = Arrays.copyOf(names, names.length + 1);
+            updated[names.length] = network;
+            sIds.put(network, names.length);
+            sNames = updated;
+
+            return names.length;
+        }
+    }
+
+    /**
+     * Gets the name of a network
+     * @param id An id returned by {@link #getId(String)}
+     * @return The network name, or null for {@link #NO_NETWORK}
+     */
+    static String getName(int id) {
+        return (id == NO_NETWORK) ? null : sNames[id];
+    }
+
+    /**
+     * Gets the number of registered networks
+     * @return The number of networks
+     */
+    static int size() {
+        return sNames.length;
+    }
+}
@@ -0,0 +1,295 @@
+package com.burstly.conveniencelayer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+
+/**
+ * A hashed timer wheel shared by every convenience layer timer.  Timers are bucketed by the frame they are due in, so
+ * timers due in the same frame fire together from a single main looper message, and only one message is ever pending
+ * for the earliest bucket.  Scheduling and cancelling are constant time.
+ *
+ * Every timer has an owner (the ad or object which scheduled it) and optionally a host (the activity or fragment it
+ * belongs to).  {@link #cancelAll(Object)} cancels by either, which is how pending timers are drained when an ad,
+ * activity or fragment is destroyed.  All methods must be called from the ui thread.
+ */
+final class TimerWheel {
+    /**
+     * Length of one tick in ms.  Timers due within the same tick fire together.
+     */
+    static final long TICK = 16;
+
+    /**
+     * Number of buckets in the wheel.  Must be a power of 2.
+     */
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * A reusable timer.  A timer can be scheduled again at any time, which replaces its pending deadline.
+     */
+    static final class Timer {
+        /**
+         * The object which scheduled this timer
+         */
+        final Object mOwner;
+
+        /**
+         * The activity or fragment this timer belongs to, may be null
+         */
+        final Object mHost;
+
+        /**
+         * Run when the timer fires
+         */
+        final Runnable mTask;
+
+        /**
+         * Tick the timer fires on
+         */
+        long mDeadline;
+
+        /**
+         * Bucket linkage, mBucket is -1 when the timer isn't scheduled
+         */
+        int mBucket = -1;
+        Timer mPrev;
+        Timer mNext;
+
+        /**
+         * Constructs a timer
+         * @param owner The object scheduling this timer
+         * @param host The activity or fragment this timer belongs to, may be null
+         * @param task The {@link Runnable} to run when the timer fires
+         */
+        Timer(final Object owner, final Object host, final Runnable task) {
+            if(owner == null || task == null)
+                throw new IllegalArgumentException("owner and task must not be null");
+
+            mOwner = owner;
+            mHost = host;
+            mTask = task;
+        }
+
+        /**
+         * Gets whether the timer is waiting to fire
+         * @return true if scheduled
+         */
+        boolean isScheduled() {
+            return mBucket >= 0;
+        }
+    }
+
+    private static TimerWheel sInstance;
+
+    /**
+     * Gets the shared timer wheel
+     * @return The {@link TimerWheel} used by all convenience layer timers
+     */
+    static TimerWheel get() {
+        BurstlyBaseAd.throwIfNotOnMainThread();
+
+        if(sInstance == null)
+            sInstance = new TimerWheel();
+
+        return sInstance;
+    }
+
+    /**
+     * Head of each bucket's list
+     */
+    private final Timer[] mBuckets = new Timer[WHEEL_SIZE];
+
+    /**
+     * Number of scheduled timers
+     */
+    private int mCount;
+
+    /**
+     * Last tick which has been processed
+     */
+    private long mCurrentTick = currentTick();
+
+    /**
+     * Tick the pending looper message is for, or Long.MAX_VALUE if nothing is posted
+     */
+    private long mPostedTick = Long.MAX_VALUE;
+
+    /**
+     * Timers expiring in the current batch, reused between ticks
+     */
+    private final ArrayList<Timer> mExpired = new ArrayList<Timer>();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final Runnable mTickRunnable = new Runnable() {
+        public void run() {
+            mPostedTick = Long.MAX_VALUE;
+            advance();
+        }
+    };
+
+    private TimerWheel() {
+    }
+
+    /**
+     * Gets the current time in ticks
+     * @return ticks based on {@link SystemClock#elapsedRealtime()}
+     */
+    private static long currentTick() {
+        return SystemClock.elapsedRealtime() / TICK;
+    }
+
+    /**
+     * Schedules a timer, replacing its previous deadline if it was already scheduled
+     * @param timer The {@link Timer} to schedule
+     * @param delay Time in ms from now the timer will fire
+     */
+    void schedule(final Timer timer, long delay) {
+        if(timer.isScheduled())
+            unlink(timer);
+
+        //round up so a timer never fires early
+        final long deadline = Math.max(currentTick() + (Math.max(delay, 0) + TICK - 1) / TICK, mCurrentTick + 1);
+        final int bucket = (int)(deadline & WHEEL_MASK);
+
+        timer.mDeadline = deadline;
+        timer.mBucket = bucket;
+        timer.mPrev = null;
+        timer.mNext = mBuckets[bucket];
+
+        if(timer.mNext != null)
+            timer.mNext.mPrev = timer;
+
+        mBuckets[bucket] = timer;
+        mCount++;
+
+        if(deadline < mPostedTick)
+            post(deadline);
+    }
+
+    /**
+     * Cancels a timer if it is scheduled
+     * @param timer The {@link Timer} to cancel
+     */
+    void cancel(final Timer timer) {
+        if(timer.isScheduled())
+            unlink(timer);
+    }
+
+    /**
+     * Cancels every timer owned by or hosted by an object
+     * @param ownerOrHost An ad or other owner, or an activity or fragment
+     */
+    void cancelAll(final Object ownerOrHost) {
+        if(mCount == 0)
+            return;
+
+        for(int i = 0; i < WHEEL_SIZE; i++) {
+            Timer timer = mBuckets[i];
+
+            while(timer != null) {
+                final Timer next = timer.mNext;
+
+                if(timer.mOwner == ownerOrHost || timer.mHost == ownerOrHost)
+                    unlink(timer);
+
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of scheduled timers
+     * @return The number of timers waiting to fire
+     */
+    int size() {
+        return mCount;
+    }
+
+    /**
+     * Removes a timer from its bucket
+     * @param timer A scheduled {@link Timer}
+     */
+    private void unlink(final Timer timer) {
+        if(timer.mPrev != null)
+            timer.mPrev.mNext = timer.mNext;
+        else
+            mBuckets[timer.mBucket] = timer.mNext;
+
+        if(timer.mNext != null)
+            timer.mNext.mPrev = timer.mPrev;
+
+        timer.mBucket = -1;
+        timer.mPrev = null;
+        timer.mNext = null;
+        mCount--;
+    }
+
+    /**
+     * Posts the tick message for the given tick, replacing any later pending message
+     * @param tick The tick to wake up on
+     */
+    private void post(long tick) {
+        mHandler.removeCallbacks(mTickRunnable);
+        mHandler.postDelayed(mTickRunnable, Math.max(0, tick * TICK - SystemClock.elapsedRealtime()));
+        mPostedTick = tick;
+    }
+
+    /**
+     * Fires every timer due up to the current tick as a single batch then posts for the next due timer
+     */
+    private void advance() {
+        final long now = currentTick();
+
+        //visit each bucket at most once even if the looper was blocked for longer than a full turn of the wheel
+        final long last = Math.min(now, mCurrentTick + WHEEL_SIZE);
+
+        for(long tick = mCurrentTick + 1; tick <= last; tick++) {
+            Timer timer = mBuckets[(int)(tick & WHEEL_MASK)];
+
+            while(timer != null) {
+                final Timer next = timer.mNext;
+
+                if(timer.mDeadline <= now) {
+                    unlink(timer);
+                    mExpired.add(timer);
+                }
+
+                timer = next;
+            }
+        }
+
+        mCurrentTick = now;
+
+        for(int i = 0; i < mExpired.size(); i++)
+            mExpired.get(i).mTask.run();
+
+        mExpired.clear();
+
+        //timers scheduled by the batch may have posted for a later tick than one already waiting
+        if(mCount > 0) {
+            final long earliest = findEarliestDeadline();
+
+            if(earliest < mPostedTick)
+                post(earliest);
+        }
+    }
+
+    /**
+     * Finds the earliest deadline of all scheduled timers
+     * @return The earliest deadline in ticks
+     */
+    private long findEarliestDeadline() {
+        long earliest = Long.MAX_VALUE;
+
+        for(int i = 0; i < WHEEL_SIZE; i++) {
+            for(Timer timer = mBuckets[i]; timer != null; timer = timer.mNext)
+                earliest = Math.min(earliest, timer.mDeadline);
+        }
+
+        return earliest;
+    }
+}
@@ -0,0 +1,123 @@
+package com.burstly.conveniencelayer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Keeps track of the app/zone combination each view name is used with so that a name is never used for two different
+ * pubs and zones at the same time.  Each name is reference counted against the live placements using it and evicted
+ * when the last of them is destroyed, so dynamically named placements don't accumulate.
+ *
+ * App and zone ids are interned to small integer ids and each name stores its combination packed into a single long,
+ * instead of a concatenated "app:zone" string per name.  The id table only grows with the number of distinct apps and
+ * zones, which is fixed by the publisher's configuration.
+ *
+ * This class is not thread safe and should only be used from the ui thread.
+ */
+final class ViewNameRegistry {
+    /**
+     * Registration of a single view name
+     */
+    private static final class Entry {
+        /**
+         * App id in the high 32 bits, zone id in the low 32 bits
+         */
+        final long mAppZone;
+
+        /**
+         * Number of live placements using the name
+         */
+        int mRefs;
+
+        Entry(long appZone) {
+            mAppZone = appZone;
+        }
+    }
+
+    /**
+     * Registered view names
+     */
+    private final HashMap<String, Entry> mNames = new HashMap<String, Entry>();
+
+    /**
+     * Interned app and zone ids
+     */
+    private final HashMap<String, Integer> mIds = new HashMap<String, Integer>();
+    private final ArrayList<String> mStrings = new ArrayList<String>();
+
+    /**
+     * Registers a placement using a view name
+     * @param name The view name
+     * @param appId The app id the placement uses
+     * @param zoneId The zone id the placement uses
+     * @throws RuntimeException if the name is in use with a different app/zone combination
+     */
+    void acquire(final String name, final String appId, final String zoneId) {
+        final long appZone = ((long)intern(appId) << 32) | (intern(zoneId) & 0xFFFFFFFFL);
+        Entry entry = mNames.get(name);
+
+        if(entry == null) {
+            entry = new Entry(appZone);
+            mNames.put(name, entry);
+        }
+        else if(entry.mAppZone != appZone) {
+            throw new RuntimeException("Attempting to reuse the view Id " + name + " with a different app/zone combination (already used with " + decode(entry.mAppZone) + ").  Use a new view Id for each pub and zone");
+        }
+
+        entry.mRefs++;
+    }
+
+    /**
+     * Releases a placement's use of a view name.  The name is forgotten when no placements use it.
+     * @param name The view name
+     */
+    void release(final String name) {
+        final Entry entry = mNames.get(name);
+
+        if(entry != null && --entry.mRefs <= 0)
+            mNames.remove(name);
+    }
+
+    /**
+     * Gets the number of view names in use
+     * @return The number of registered names
+     */
+    int size() {
+        return mNames.size();
+    }
+
+    /**
+     * Forgets every name and id
+     */
+    void clear() {
+        mNames.clear();
+        mIds.clear();
+        mStrings.clear();
+    }
+
+    /**
+     * Gets the id of an app or zone id string, assigning one if it hasn't been seen
+     * @param value The app or zone id
+     * @return The interned id
+     */
+    private int intern(final String value) {
+        final String key = (value != null) ? value : "";
+        final Integer id = mIds.get(key);
+
+        if(id != null)
+            return id.intValue();
+
+        mStrings.add(key);
+        mIds.put(key, Integer.valueOf(mStrings.size() - 1));
+        return mStrings.size() - 1;
+    }
+
+    /**
+     * Decodes a packed app/zone combination for logging
+     * @param appZone The packed combination
+     * @return "app:zone"
+     */
+    private String decode(long appZone) {
+        return mStrings.get((int)(appZone >>> 32)) + ":" + mStrings.get((int)appZone);
+    }
+}
@@ -0,0 +1,139 @@
+package com.burstly.conveniencelayer;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Tracks how much of an ad's view is inside the viewport.  The visible fraction is recomputed when the view tree
+ * scrolls or lays out, so an ad scrolled out of a ScrollView or covered by a GONE parent is noticed without polling.
+ * The ad is notified only when the visible fraction crosses its threshold.
+ */
+final class ViewportTracker implements ViewTreeObserver.OnScrollChangedListener, ViewTreeObserver.OnGlobalLayoutListener {
+    /**
+     * The ad being tracked
+     */
+    private final BurstlyBaseAd mAd;
+
+    /**
+     * The ad's view
+     */
+    private final View mView;
+
+    /**
+     * The fraction of the view which must be visible for it to count as in the viewport
+     */
+    private final float mMinVisibleFraction;
+
+    /**
+     * Rect reused for every visibility check
+     */
+    private final Rect mRect = new Rect();
+
+    /**
+     * The observer the listeners were added to.  Replaced if the view is attached to a new window.
+     */
+    private ViewTreeObserver mObserver;
+
+    /**
+     * Was the view in the viewport at the last check.  Set when the tracker is attached.
+     */
+    private boolean mInViewport;
+
+    /**
+     * Constructs a tracker and starts listening for changes
+     * @param ad The ad being tracked
+     * @param view The ad's view
+     * @param minVisibleFraction The fraction of the view, 0.0f - 1.0f, which must be visible
+     */
+    ViewportTracker(final BurstlyBaseAd ad, final View view, float minVisibleFraction) {
+        mAd = ad;
+        mView = view;
+        mMinVisibleFraction = minVisibleFraction;
+
+        attach();
+
+        //a view which hasn't been laid out yet counts as in the viewport until its first layout decides
+        mInViewport = (mView.getWidth() == 0 && mView.getHeight() == 0) || getVisibleFraction() >= mMinVisibleFraction;
+
+        if(!mInViewport)
+            mAd.viewportChanged(false);
+    }
+
+    /**
+     * Adds the listeners to the view's current {@link ViewTreeObserver}
+     */
+    private void attach() {
+        mObserver = mView.getViewTreeObserver();
+
+        if(mObserver != null) {
+            mObserver.addOnScrollChangedListener(this);
+            mObserver.addOnGlobalLayoutListener(this);
+        }
+    }
+
+    /**
+     * Stops tracking the view.  If the observer the listeners were added to has died they were merged into the view's
+     * current observer, so they are removed from that one instead.
+     */
+    void detach() {
+        ViewTreeObserver observer = mObserver;
+
+        if(observer == null || !observer.isAlive())
+            observer = mView.getViewTreeObserver();
+
+        if(observer != null && observer.isAlive()) {
+            observer.removeOnScrollChangedListener(this);
+            observer.removeGlobalOnLayoutListener(this);
+        }
+
+        mObserver = null;
+    }
+
+    /**
+     * Gets whether the view was in the viewport at the last check
+     * @return true if at least the minimum fraction of the view was visible
+     */
+    boolean isInViewport() {
+        return mInViewport;
+    }
+
+    public void onScrollChanged() {
+        update();
+    }
+
+    public void onGlobalLayout() {
+        //a view moved to a new window gets a new observer, the old one is no longer alive
+        if(mObserver == null || !mObserver.isAlive()) {
+            detach();
+            attach();
+        }
+
+        update();
+    }
+
+    /**
+     * Recomputes the visible fraction and notifies the ad if it crossed the threshold
+     */
+    void update() {
+        final boolean inViewport = getVisibleFraction() >= mMinVisibleFraction;
+
+        if(inViewport != mInViewport) {
+            mInViewport = inViewport;
+            mAd.viewportChanged(inViewport);
+        }
+    }
+
+    /**
+     * Gets the fraction of the view which is visible on screen
+     * @return 0.0f - 1.0f
+     */
+    private float getVisibleFraction() {
+        final int area = mView.getWidth() * mView.getHeight();
+
+        if(area <= 0 || !mView.isShown() || !mView.getGlobalVisibleRect(mRect))
+            return 0.0f;
+
+        return (float)(mRect.width() * mRect.height()) / area;
+    }
+}
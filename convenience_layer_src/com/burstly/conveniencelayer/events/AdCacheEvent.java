@@ -1,6 +1,7 @@
 package com.burstly.conveniencelayer.events;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Event containing data on an ad that was cached
@@ -14,14 +15,14 @@ public class AdCacheEvent extends AdEvent{
     /**
      * The list of networks which Burstly attempted to retrieve an ad from but did not return a valid
      */
-    private final ArrayList<String> mFailedCreativeNetworks;
+    private final List<String> mFailedCreativeNetworks;
 
     /**
      * Constructs a new AdCacheEvent
      * @param loadedNetowrk The network providing the creative that was cached
      * @param failedCreativeNetworks The list of networks which Burstly attempted to retrieve but did not provide a valid ad
      */
-    public AdCacheEvent(final String loadedNetowrk, final ArrayList<String> failedCreativeNetworks) {
+    public AdCacheEvent(final String loadedNetowrk, final List<String> failedCreativeNetworks) {
         mLoadedCreativeNetwork = loadedNetowrk;
         mFailedCreativeNetworks = failedCreativeNetworks;
     }
@@ -36,9 +37,10 @@ public class AdCacheEvent extends AdEvent{
 
     /**
      * Gets the list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad
-     * @return The list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad
+     * @return The list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad.  The
+     * list is a copy, so changes to it don't affect the event.
      */
     public ArrayList<String> getFailedCreativesNetworks() {
-        return mFailedCreativeNetworks;
+        return (mFailedCreativeNetworks == null) ? null : new ArrayList<String>(mFailedCreativeNetworks);
     }
 }
@@ -3,6 +3,7 @@ package com.burstly.conveniencelayer.events;
 import com.burstly.lib.ui.BurstlyView;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Event containing details of a failure in loading an ad
@@ -11,7 +12,7 @@ public class AdFailEvent extends AdEvent {
     /**
      * The list of networks which Burstly attempted to retrieve an ad from but did not return a valid
      */
-    private final ArrayList<String> mFailedCreativeNetworks;
+    private final List<String> mFailedCreativeNetworks;
 
     /**
      * The minimum amount of time in ms that must be waited until the next request is made
@@ -46,19 +47,33 @@ public class AdFailEvent extends AdEvent {
      * @param burstlyView The BrustlyView associated with the failure
      * @param wasPrecacheCall Was this failure the result of a call to precache (true), or show (false)
      */
-    public AdFailEvent(final ArrayList<String> failedCreativeNetworks, final BurstlyView burstlyView, boolean wasPrecacheCall) {
+    public AdFailEvent(final List<String> failedCreativeNetworks, final BurstlyView burstlyView, boolean wasPrecacheCall) {
         mFailedCreativeNetworks = failedCreativeNetworks;
         mRequestThrottled = false;
         mMinTimeUntilNextRequest = burstlyView.getMinTimeUntilNextRequest();
         mFailureResultOfCachingAttempt = wasPrecacheCall;
     }
 
+    /**
+     * Constructs a new AdFailEvent
+     * @param failedCreativeNetworks The list of networks which Burstly attempted to retrieve but did not provide a valid ad
+     * @param minTimeUntilNextRequest the minimum amount of time in ms that must be waited until the next request is made
+     * @param wasPrecacheCall Was this failure the result of a call to precache (true), or show (false)
+     */
+    public AdFailEvent(final List<String> failedCreativeNetworks, int minTimeUntilNextRequest, boolean wasPrecacheCall) {
+        mFailedCreativeNetworks = failedCreativeNetworks;
+        mRequestThrottled = false;
+        mMinTimeUntilNextRequest = minTimeUntilNextRequest;
+        mFailureResultOfCachingAttempt = wasPrecacheCall;
+    }
+
     /**
      * Gets the list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad
-     * @return The list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad
+     * @return The list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad.  The
+     * list is a copy, so changes to it don't affect the event.
      */
     public ArrayList<String> getFailedCreativesNetworks() {
-        return mFailedCreativeNetworks;
+        return (mFailedCreativeNetworks == null) ? null : new ArrayList<String>(mFailedCreativeNetworks);
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.burstly.conveniencelayer.events;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Event containing data on an ad that is being shown
@@ -19,7 +20,7 @@ public class AdShowEvent extends AdEvent {
     /**
      * The list of networks which Burstly attempted to retrieve an ad from but did not return a valid
      */
-    private final ArrayList<String> mFailedCreativeNetworks;
+    private final List<String> mFailedCreativeNetworks;
 
     /**
      * Is this ad showing as the result of a refresh. true if it's a refreshed banner, false if it's the first time it is shown
@@ -34,7 +35,7 @@ public class AdShowEvent extends AdEvent {
      * @param failedCreativeNetworks The list of networks which Burstly attempted to retrieve but did not provide a valid ad
      * @param isRefresh Is this ad showing as the result of a refresh. true if it's a refreshed banner, false if it's the first time it is shown
      */
-    public AdShowEvent(boolean isActivityInterstitial, final String loadedNetowrk, final ArrayList<String> failedCreativeNetworks, boolean isRefresh) {
+    public AdShowEvent(boolean isActivityInterstitial, final String loadedNetowrk, final List<String> failedCreativeNetworks, boolean isRefresh) {
         mIsActivityInterstitial = isActivityInterstitial;
         mLoadedCreativeNetwork = loadedNetowrk;
         mFailedCreativeNetworks = failedCreativeNetworks;
@@ -60,10 +61,11 @@ public class AdShowEvent extends AdEvent {
 
     /**
      * Gets the list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad
-     * @return The list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad
+     * @return The list of networks which Burstly attempted to retrieve an ad from but did not provide a valid ad.  The
+     * list is a copy, so changes to it don't affect the event.
      */
     public ArrayList<String> getFailedCreativesNetworks() {
-        return mFailedCreativeNetworks;
+        return (mFailedCreativeNetworks == null) ? null : new ArrayList<String>(mFailedCreativeNetworks);
     }
 
     /**
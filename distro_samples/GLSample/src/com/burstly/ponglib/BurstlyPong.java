@@ -1,7 +1,6 @@
 package com.burstly.ponglib;
 
 import android.app.Activity;
-import android.content.res.AssetManager;
 import android.graphics.PointF;
 import android.graphics.Rect;
 import android.graphics.RectF;
@@ -27,9 +26,6 @@ public class BurstlyPong extends GLSurfaceView implements IGLGame, IPongListener
     private static final PointF BACK_SIZE = new PointF(279.0f, 478.0f);
     private static final PointF PADDLE_SIZE = new PointF(64.0f, 64.0f);
     private static final PointF BALL_SIZE = new PointF(64.0f, 64.0f);
-    private static final RectF BACK_TEXRECT = new RectF(0.0f, 0.0f, BACK_SIZE.x / 512.0f, BACK_SIZE.y / 512.0f);
-    private static final RectF PADDLE_TEXRECT = new RectF(BACK_SIZE.x / 512.0f, 0.0f, (BACK_SIZE.x + PADDLE_SIZE.x) / 512.0f, PADDLE_SIZE.y / 512.0f );
-    private static final RectF BALL_TEXRECT = new RectF(BACK_SIZE.x / 512.0f, PADDLE_SIZE.y / 512.0f, (BACK_SIZE.x + BALL_SIZE.x) / 512.0f, (PADDLE_SIZE.y + BALL_SIZE.y) / 512.0f);
 
     private static final Color CLEAR_COLOR = new Color(1.0f, 0.0f, 0.0f, 0.0f);
     private static final Color RAIL_COLOR = new Color(1.0f, 0.4f, 0.4f, 0.4f);
@@ -67,10 +63,13 @@ public class BurstlyPong extends GLSurfaceView implements IGLGame, IPongListener
     /**
      * Graphical members
      */
+    protected TextureManager mTextures;
     protected Texture mTex;
+    protected TextureAtlas mAtlas;
     protected Sprite mBack;
     protected Sprite[] mPaddles;
     protected Sprite mBall;
+    protected SpriteBatch mBatch;
 
     /**
      * Screen density for calculating banner widget size
@@ -82,6 +81,11 @@ public class BurstlyPong extends GLSurfaceView implements IGLGame, IPongListener
      */
     protected PointF[] mTouchLocs;
 
+    /**
+     * Paddle targets passed to the game logic each update
+     */
+    protected final float[] mPaddleCenterY = new float[2];
+
     /**
      * Instantiate the game
      *
@@ -177,21 +181,30 @@ public class BurstlyPong extends GLSurfaceView implements IGLGame, IPongListener
         mActivity.getWindowManager().getDefaultDisplay().getMetrics(metrics);
         mDensity = metrics.density;
 
-        //initialize the only texture
-        try {
-            AssetManager assetMgr = mActivity.getAssets();
-            mTex = Texture.createTextureFromStream((GL11)gl, true, assetMgr.open("assets_tex.png"));
-        }
-        catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-
-        //setup the sprites
+        //a new surface means a new GL context, so textures cached from a previous one need reloading
+        if(mTextures == null)
+            mTextures = new TextureManager(mActivity);
+        else
+            mTextures.reload((GL11)gl);
+
+        //initialize the only texture.  It stays acquired for the life of the game and survives context loss
+        if(mTex == null)
+            mTex = mTextures.acquireAsset((GL11)gl, "assets_tex.png", true);
+
+        //name the images packed into the texture
+        mAtlas = new TextureAtlas();
+        mAtlas.addRegion("back", mTex, 0.0f, 0.0f, BACK_SIZE.x, BACK_SIZE.y);
+        mAtlas.addRegion("paddle", mTex, BACK_SIZE.x, 0.0f, PADDLE_SIZE.x, PADDLE_SIZE.y);
+        mAtlas.addRegion("ball", mTex, BACK_SIZE.x, PADDLE_SIZE.y, BALL_SIZE.x, BALL_SIZE.y);
+
+        //setup the sprites.  The paddles and ball move every frame and share the atlas page, so they are drawn as a
+        //single batch.  The background never moves, so it is uploaded once and drawn from VBOs where supported.
+        mBatch = new SpriteBatch(32);
         mPaddles = new Sprite[2];
-        mPaddles[0] = new Sprite9Patch(PADDLE_TEXRECT, PADDLE_SIZE);
-        mPaddles[1] = new Sprite9Patch(PADDLE_TEXRECT, PADDLE_SIZE);
-        mBall = new Sprite(BALL_TEXRECT);
-        mBack = new Sprite(BACK_TEXRECT);
+        mPaddles[0] = new Sprite9Patch(mAtlas, "paddle");
+        mPaddles[1] = new Sprite9Patch(mAtlas, "paddle");
+        mBall = new Sprite(mAtlas, "ball");
+        mBack = new Sprite(mAtlas, "back");
 
         //position the background image so it is centered in the game area drawn at it's native size if it fits
         //if it doesn't fit scale it so it draws as large as possible
@@ -201,6 +214,7 @@ public class BurstlyPong extends GLSurfaceView implements IGLGame, IPongListener
         float bgY = (BANNER_HEIGHT * mDensity) + (gameAreaHeight - (scale * BACK_SIZE.y)) / 2.0f;
 
         mBack.setPosAndSize(bgX, bgY, scale * BACK_SIZE.x, scale * BACK_SIZE.y);
+        mBack.upload(gl);
 
         //Initialize the game
         mGameLogic.setupRect(new RectF(0.0f, BANNER_HEIGHT * mDensity, getWidth(), getHeight()));
@@ -213,13 +227,11 @@ public class BurstlyPong extends GLSurfaceView implements IGLGame, IPongListener
      * @param delta The amount of time that has passed since the previous update
      */
     public void update(float delta) {
-        float[] paddleCenterY = {
-            mTouchLocs[0].y,
-            mTouchLocs[1].y
-        };
+        mPaddleCenterY[0] = mTouchLocs[0].y;
+        mPaddleCenterY[1] = mTouchLocs[1].y;
 
         if(!mPaused) {
-            mGameLogic.update(delta, paddleCenterY);
+            mGameLogic.update(delta, mPaddleCenterY);
             mGameLogic.updateBallSprite(mBall);
             mGameLogic.updatePaddleSprites(mPaddles);
         }
@@ -237,15 +249,21 @@ public class BurstlyPong extends GLSurfaceView implements IGLGame, IPongListener
      */
     public void render(GL10 gl) {
 
+        mTextures.deletePending((GL11)gl);
         GLGfx.clearScreen(gl, true, CLEAR_COLOR, true);
 
+        mTex.setAsDiffuseTex();
         mBack.draw(gl);
 
-        GLGfx.drawLine(gl, RAIL_COLOR, 0, BANNER_HEIGHT * mDensity, getWidth(), BANNER_HEIGHT * mDensity);
+        mBatch.begin(gl);
+        mBatch.setTexture(mTex);
+        mBatch.draw(mPaddles[0]);
+        mBatch.draw(mPaddles[1]);
+        mBatch.draw(mBall);
+        mBatch.end();
 
-        mPaddles[0].draw(gl);
-        mPaddles[1].draw(gl);
-        mBall.draw(gl);
+        //the rail sits above the play area so drawing it after the batch doesn't cover the paddles or ball
+        GLGfx.drawLine(gl, RAIL_COLOR, 0, BANNER_HEIGHT * mDensity, getWidth(), BANNER_HEIGHT * mDensity);
     }
 
     /**
@@ -1,9 +1,12 @@
 package com.burstly.ponglib.gfx;
 
 import javax.microedition.khronos.opengles.GL10;
+import javax.microedition.khronos.opengles.GL11;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * GL primitive drawing helper functions
@@ -14,6 +17,11 @@ public class GLGfx {
      */
     private static FloatBuffer sVertexBuffer;
 
+    /**
+     * Matches the version number in a GL_VERSION string such as "OpenGL ES-CM 1.1" or "OpenGL ES-CL 1.0"
+     */
+    private static final Pattern ES_VERSION = Pattern.compile("OpenGL ES(?:-C[ML])? (\\d+)\\.(\\d+)");
+
     /**
      * Initialize the primitive drawing system
      *
@@ -26,6 +34,34 @@ public class GLGfx {
         sVertexBuffer = byteBuffer.asFloatBuffer();
     }
 
+    /**
+     * Check whether vertex buffer objects can be used with a context
+     *
+     * @param gl openGL context reference
+     * @return true if VBOs are supported, false if geometry must be drawn from client arrays
+     */
+    public static boolean supportsVBOs(final GL10 gl) {
+        if(!(gl instanceof GL11))
+            return false;
+
+        //VBOs are core from OpenGL ES 1.1.  ES 1.0 has no vertex buffer object extension, so older contexts draw from
+        //client arrays.
+        final String version = gl.glGetString(GL10.GL_VERSION);
+
+        if(version == null)
+            return false;
+
+        final Matcher matcher = ES_VERSION.matcher(version);
+
+        if(!matcher.find())
+            return false;
+
+        final int major = Integer.parseInt(matcher.group(1));
+        final int minor = Integer.parseInt(matcher.group(2));
+
+        return major > 1 || (major == 1 && minor >= 1);
+    }
+
     /**
      * Clear the screen
      *
@@ -62,15 +98,10 @@ public class GLGfx {
      * @param color Color used to draw the triangle
      */
     public static void fillRect(final GL10 gl, float x, float y, float w, float h, final Color color) {
-        final float[] verts = {
-            x, y,
-            x + w, y,
-            x, y + h,
-            x + w, y + h
-        };
-
-        sVertexBuffer.put(verts);
-        sVertexBuffer.position(0);
+        sVertexBuffer.put(0, x);      sVertexBuffer.put(1, y);
+        sVertexBuffer.put(2, x + w);  sVertexBuffer.put(3, y);
+        sVertexBuffer.put(4, x);      sVertexBuffer.put(5, y + h);
+        sVertexBuffer.put(6, x + w);  sVertexBuffer.put(7, y + h);
 
         color.setAsGLColor(gl);
 
@@ -78,7 +109,7 @@ public class GLGfx {
         gl.glDisable(GL10.GL_TEXTURE_2D);
 
         gl.glVertexPointer(2, GL10.GL_FLOAT, 0, sVertexBuffer);
-        gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, verts.length / 2);
+        gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, 4);
 
         gl.glEnableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
         gl.glEnable(GL10.GL_TEXTURE_2D);
@@ -97,6 +128,18 @@ public class GLGfx {
         sVertexBuffer.put(verts);
         sVertexBuffer.position(0);
 
+        drawLines(gl, color, verts.length / 2, close);
+    }
+
+    /**
+     * Draw lines between the first vertCount x, y pairs in the vertex buffer
+     *
+     * @param gl openGL context reference
+     * @param color line color
+     * @param vertCount number of x, y pairs in the vertex buffer
+     * @param close true will draw an additional line between the last and first elements to close the loop
+     */
+    private static void drawLines(final GL10 gl, final Color color, int vertCount, boolean close) {
         gl.glDisableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
         gl.glDisable(GL10.GL_TEXTURE_2D);
 
@@ -105,9 +148,9 @@ public class GLGfx {
         gl.glVertexPointer(2, GL10.GL_FLOAT, 0, sVertexBuffer);
 
         if(close)
-            gl.glDrawArrays(GL10.GL_LINE_LOOP, 0, verts.length / 2);
+            gl.glDrawArrays(GL10.GL_LINE_LOOP, 0, vertCount);
         else
-            gl.glDrawArrays(GL10.GL_LINE_STRIP, 0, verts.length / 2);
+            gl.glDrawArrays(GL10.GL_LINE_STRIP, 0, vertCount);
 
         gl.glEnableClientState(GL10.GL_TEXTURE_COORD_ARRAY);
         gl.glEnable(GL10.GL_TEXTURE_2D);
@@ -124,7 +167,9 @@ public class GLGfx {
      * @param y2 second point's y component
      */
     public static void drawLine(final GL10 gl, final Color color, float x1, float y1, float x2, float y2) {
-        final float[] verts = {x1, y1, x2, y2};
-        drawPolyLine(gl, color, verts, false);
+        sVertexBuffer.put(0, x1);  sVertexBuffer.put(1, y1);
+        sVertexBuffer.put(2, x2);  sVertexBuffer.put(3, y2);
+
+        drawLines(gl, color, 2, false);
     }
 }
@@ -4,6 +4,7 @@ import android.graphics.PointF;
 import android.graphics.RectF;
 
 import javax.microedition.khronos.opengles.GL10;
+import javax.microedition.khronos.opengles.GL11;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -12,12 +13,33 @@ import java.nio.FloatBuffer;
  * Simple sprite class
  */
 public class Sprite {
+    /**
+     * Triangle order of the quad's vertices when drawn by a SpriteBatch
+     */
+    private static final byte[] QUAD_INDICES = {0, 1, 2, 1, 2, 3};
+
     /**
      * Buffers used for drawing textured quads
      */
     protected FloatBuffer mVerts;
     protected FloatBuffer mTexCoords;
 
+    /**
+     * Indices into mVbos
+     */
+    protected static final int VBO_POSITIONS = 0;
+    protected static final int VBO_TEXCOORDS = 1;
+
+    /**
+     * Vertex buffer objects holding the sprite's geometry, or null if the sprite draws from client arrays
+     */
+    protected int[] mVbos;
+
+    /**
+     * Have the vertex positions changed since they were last uploaded to the positions VBO
+     */
+    protected boolean mVertsDirty;
+
     /**
      * Upper left corner of the quad
      */
@@ -91,6 +113,25 @@ public class Sprite {
         createVertexBuffer();
     }
 
+    /**
+     * Construct a new sprite showing a region of a texture atlas.  Bind the region's texture before drawing it.
+     *
+     * @param region Atlas region
+     */
+    public Sprite(final TextureRegion region) {
+        this(region.getTexRect());
+    }
+
+    /**
+     * Construct a new sprite showing a named region of a texture atlas.  Bind the region's texture before drawing it.
+     *
+     * @param atlas Atlas holding the region
+     * @param name Name of the region
+     */
+    public Sprite(final TextureAtlas atlas, final String name) {
+        this(atlas.getRegion(name));
+    }
+
     /**
      * Draw sprite quad with the currently bound texture.
      *
@@ -99,24 +140,106 @@ public class Sprite {
     public void draw(final GL10 gl) {
         mColor.setAsGLColor(gl);
 
+        if(mVbos != null) {
+            bindVbos((GL11)gl);
+            gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, 4);
+            ((GL11)gl).glBindBuffer(GL11.GL_ARRAY_BUFFER, 0);
+            return;
+        }
+
         gl.glVertexPointer(2, GL10.GL_FLOAT, 0, mVerts);
         gl.glTexCoordPointer(2, GL10.GL_FLOAT, 0, mTexCoords);
         gl.glDrawArrays(GL10.GL_TRIANGLE_STRIP, 0, 4);
     }
 
+    /**
+     * Upload the sprite's geometry into vertex buffer objects.  Texcoords are uploaded once, and from then on only
+     * vertex positions which have changed are sent, when the sprite is drawn.  Does nothing if VBOs aren't supported,
+     * in which case the sprite keeps drawing from client arrays.  VBOs belong to the current context, so a sprite must
+     * be uploaded again after the context is lost.
+     *
+     * @param gl openGL context reference
+     */
+    public void upload(final GL10 gl) {
+        if(mVbos != null || !GLGfx.supportsVBOs(gl))
+            return;
+
+        final GL11 gl11 = (GL11)gl;
+        mVbos = new int[getVboCount()];
+        gl11.glGenBuffers(mVbos.length, mVbos, 0);
+
+        gl11.glBindBuffer(GL11.GL_ARRAY_BUFFER, mVbos[VBO_TEXCOORDS]);
+        gl11.glBufferData(GL11.GL_ARRAY_BUFFER, mTexCoords.capacity() * 4, mTexCoords, GL11.GL_STATIC_DRAW);
+
+        gl11.glBindBuffer(GL11.GL_ARRAY_BUFFER, mVbos[VBO_POSITIONS]);
+        gl11.glBufferData(GL11.GL_ARRAY_BUFFER, mVerts.capacity() * 4, mVerts, GL11.GL_DYNAMIC_DRAW);
+
+        gl11.glBindBuffer(GL11.GL_ARRAY_BUFFER, 0);
+        mVertsDirty = false;
+    }
+
+    /**
+     * Delete the sprite's vertex buffer objects.  The sprite goes back to drawing from client arrays.
+     *
+     * @param gl openGL context reference
+     */
+    public void release(final GL10 gl) {
+        if(mVbos == null)
+            return;
+
+        ((GL11)gl).glDeleteBuffers(mVbos.length, mVbos, 0);
+        mVbos = null;
+    }
+
+    /**
+     * Get the number of vertex buffer objects used by the sprite
+     *
+     * @return number of VBOs
+     */
+    protected int getVboCount() {
+        return 2;
+    }
+
+    /**
+     * Upload positions if they have changed and point the vertex and texcoord arrays at the sprite's VBOs
+     *
+     * @param gl openGL context reference
+     */
+    protected void bindVbos(final GL11 gl) {
+        gl.glBindBuffer(GL11.GL_ARRAY_BUFFER, mVbos[VBO_POSITIONS]);
+
+        if(mVertsDirty) {
+            gl.glBufferSubData(GL11.GL_ARRAY_BUFFER, 0, mVerts.capacity() * 4, mVerts);
+            mVertsDirty = false;
+        }
+
+        gl.glVertexPointer(2, GL10.GL_FLOAT, 0, 0);
+
+        gl.glBindBuffer(GL11.GL_ARRAY_BUFFER, mVbos[VBO_TEXCOORDS]);
+        gl.glTexCoordPointer(2, GL10.GL_FLOAT, 0, 0);
+    }
+
+    /**
+     * Add the sprite's quad to a batch to be drawn with the batch's texture
+     *
+     * @param batch SpriteBatch the sprite is drawn with
+     */
+    protected void addToBatch(final SpriteBatch batch) {
+        batch.add(mVerts, mTexCoords, 4, QUAD_INDICES, mColor);
+    }
+
     /**
      * Set the sprites vertex positions in the FloatBuffer based on the position and width
      */
     protected void updateVertexBuffer() {
-        final float[] verts = {
-            mPos.x,             mPos.y,
-            mPos.x + mWidth,    mPos.y,
-            mPos.x,             mPos.y + mHeight,
-            mPos.x + mWidth,    mPos.y + mHeight,
-        };
+        final float right = mPos.x + mWidth;
+        final float bottom = mPos.y + mHeight;
 
-        mVerts.put(verts);
-        mVerts.position(0);
+        //absolute puts so updating the sprite never allocates
+        mVerts.put(0, mPos.x);  mVerts.put(1, mPos.y);
+        mVerts.put(2, right);   mVerts.put(3, mPos.y);
+        mVerts.put(4, mPos.x);  mVerts.put(5, bottom);
+        mVerts.put(6, right);   mVerts.put(7, bottom);
     }
 
     /**
@@ -139,6 +262,7 @@ public class Sprite {
         mPos.y = y;
 
         updateVertexBuffer();
+        mVertsDirty = true;
     }
 
     /**
@@ -152,6 +276,7 @@ public class Sprite {
         mHeight = height;
 
         updateVertexBuffer();
+        mVertsDirty = true;
     }
 
     /**
@@ -169,6 +294,7 @@ public class Sprite {
         mHeight = height;
 
         updateVertexBuffer();
+        mVertsDirty = true;
     }
 
     /**
@@ -4,6 +4,7 @@ import android.graphics.PointF;
 import android.graphics.RectF;
 
 import javax.microedition.khronos.opengles.GL10;
+import javax.microedition.khronos.opengles.GL11;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -11,6 +12,20 @@ import java.nio.ByteOrder;
  * 9 quads used to draw a rectangle that doesn't stretch the corners but acts as a sprite
  */
 public class Sprite9Patch extends Sprite {
+    /**
+     * Vertex order of the 9 quads
+     */
+    private static final byte[] INDICES = {
+        0,  1,  4,  1,  4,  5,  1,  2,  5,  2,  5,  6,  2,  3,  6,  3,  6,  7,
+        4,  5,  8,  5,  8,  9,  5,  6,  9,  6,  9, 10,  6,  7, 10,  7, 10, 11,
+        8,  9, 12,  9, 12, 13,  9, 10, 13, 10, 13, 14, 10, 11, 14, 11, 14, 15
+    };
+
+    /**
+     * Index into mVbos of the VBO holding the vertex order
+     */
+    protected static final int VBO_INDICES = 2;
+
     /**
      * Index buffer storing the vertex order
      */
@@ -34,6 +49,25 @@ public class Sprite9Patch extends Sprite {
         createIndexBuffer();
     }
 
+    /**
+     * Create a Sprite9Patch showing a region of a texture atlas
+     *
+     * @param region Atlas region
+     */
+    public Sprite9Patch(final TextureRegion region) {
+        this(region.getTexRect(), new PointF(region.getWidth(), region.getHeight()));
+    }
+
+    /**
+     * Create a Sprite9Patch showing a named region of a texture atlas
+     *
+     * @param atlas Atlas holding the region
+     * @param name Name of the region
+     */
+    public Sprite9Patch(final TextureAtlas atlas, final String name) {
+        this(atlas.getRegion(name));
+    }
+
     /**
      * Creates a FloatBuffer and stores vertex texCoords for the quad.
      *
@@ -80,15 +114,9 @@ public class Sprite9Patch extends Sprite {
      * Create the index buffer for storing vertex order
      */
     protected void createIndexBuffer() {
-        final byte[] indices = {
-            0,  1,  4,  1,  4,  5,  1,  2,  5,  2,  5,  6,  2,  3,  6,  3,  6,  7,
-            4,  5,  8,  5,  8,  9,  5,  6,  9,  6,  9, 10,  6,  7, 10,  7, 10, 11,
-            8,  9, 12,  9, 12, 13,  9, 10, 13, 10, 13, 14, 10, 11, 14, 11, 14, 15
-        };
-
-        mIndexBuffer = ByteBuffer.allocateDirect(indices.length);
+        mIndexBuffer = ByteBuffer.allocateDirect(INDICES.length);
         mIndexBuffer.order(ByteOrder.nativeOrder());
-        mIndexBuffer.put(indices);
+        mIndexBuffer.put(INDICES);
         mIndexBuffer.position(0);
     }
 
@@ -101,11 +129,61 @@ public class Sprite9Patch extends Sprite {
     public void draw(GL10 gl) {
         mColor.setAsGLColor(gl);
 
+        if(mVbos != null) {
+            final GL11 gl11 = (GL11)gl;
+
+            bindVbos(gl11);
+            gl11.glBindBuffer(GL11.GL_ELEMENT_ARRAY_BUFFER, mVbos[VBO_INDICES]);
+            gl11.glDrawElements(GL10.GL_TRIANGLES, INDICES.length, GL10.GL_UNSIGNED_BYTE, 0);
+            gl11.glBindBuffer(GL11.GL_ELEMENT_ARRAY_BUFFER, 0);
+            gl11.glBindBuffer(GL11.GL_ARRAY_BUFFER, 0);
+            return;
+        }
+
         gl.glVertexPointer(2, GL10.GL_FLOAT, 0, mVerts);
         gl.glTexCoordPointer(2, GL10.GL_FLOAT, 0, mTexCoords);
         gl.glDrawElements(GL10.GL_TRIANGLES, mIndexBuffer.capacity(), GL10.GL_UNSIGNED_BYTE, mIndexBuffer);
     }
 
+    /**
+     * Upload the sprite's geometry, including the static vertex order, into vertex buffer objects
+     *
+     * @param gl openGL context reference
+     */
+    @Override
+    public void upload(GL10 gl) {
+        final boolean uploaded = (mVbos != null);
+        super.upload(gl);
+
+        if(uploaded || mVbos == null)
+            return;
+
+        final GL11 gl11 = (GL11)gl;
+        gl11.glBindBuffer(GL11.GL_ELEMENT_ARRAY_BUFFER, mVbos[VBO_INDICES]);
+        gl11.glBufferData(GL11.GL_ELEMENT_ARRAY_BUFFER, mIndexBuffer.capacity(), mIndexBuffer, GL11.GL_STATIC_DRAW);
+        gl11.glBindBuffer(GL11.GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Get the number of vertex buffer objects used by the sprite
+     *
+     * @return number of VBOs
+     */
+    @Override
+    protected int getVboCount() {
+        return 3;
+    }
+
+    /**
+     * Add the 9 quads to a batch to be drawn with the batch's texture
+     *
+     * @param batch SpriteBatch the sprite is drawn with
+     */
+    @Override
+    protected void addToBatch(final SpriteBatch batch) {
+        batch.add(mVerts, mTexCoords, 16, INDICES, mColor);
+    }
+
     /**
      * Set the vertex positions in the FloatBuffer based on the position and width
      */
@@ -114,26 +192,37 @@ public class Sprite9Patch extends Sprite {
         float xStretch = mWidth - (2.0f * mTexSectionSize.x);
         float yStretch = mHeight - (2.0f * mTexSectionSize.y);
 
-        final float[] verts = {
-            mPos.x,                                 mPos.y,
-            mPos.x + mTexSectionSize.x,                  mPos.y,
-            mPos.x + mTexSectionSize.x + xStretch,       mPos.y,
-            mPos.x + mWidth,                        mPos.y,
-            mPos.x,                                 mPos.y + mTexSectionSize.y,
-            mPos.x + mTexSectionSize.x,                  mPos.y + mTexSectionSize.y,
-            mPos.x + mTexSectionSize.x + xStretch,       mPos.y + mTexSectionSize.y,
-            mPos.x + mWidth,                        mPos.y + mTexSectionSize.y,
-            mPos.x,                                 mPos.y + mTexSectionSize.y + yStretch,
-            mPos.x + mTexSectionSize.x,                  mPos.y + mTexSectionSize.y + yStretch,
-            mPos.x + mTexSectionSize.x + xStretch,       mPos.y + mTexSectionSize.y + yStretch,
-            mPos.x + mWidth,                        mPos.y + mTexSectionSize.y + yStretch,
-            mPos.x,                                 mPos.y + mHeight,
-            mPos.x + mTexSectionSize.x,                  mPos.y + mHeight,
-            mPos.x + mTexSectionSize.x + xStretch,       mPos.y + mHeight,
-            mPos.x + mWidth,                        mPos.y + mHeight,
-        };
+        //the 4 column and 4 row positions of the grid
+        final float x0 = mPos.x;
+        final float x1 = mPos.x + mTexSectionSize.x;
+        final float x2 = mPos.x + mTexSectionSize.x + xStretch;
+        final float x3 = mPos.x + mWidth;
+        final float y0 = mPos.y;
+        final float y1 = mPos.y + mTexSectionSize.y;
+        final float y2 = mPos.y + mTexSectionSize.y + yStretch;
+        final float y3 = mPos.y + mHeight;
+
+        //absolute puts, one row of 4 verts at a time, so updating the sprite never allocates
+        putRow(0, y0, x0, x1, x2, x3);
+        putRow(8, y1, x0, x1, x2, x3);
+        putRow(16, y2, x0, x1, x2, x3);
+        putRow(24, y3, x0, x1, x2, x3);
+    }
 
-        mVerts.put(verts);
-        mVerts.position(0);
+    /**
+     * Write a row of 4 vertex positions into the vertex buffer
+     *
+     * @param offset index of the row's first float
+     * @param y y component shared by the row
+     * @param x0 first column's x component
+     * @param x1 second column's x component
+     * @param x2 third column's x component
+     * @param x3 fourth column's x component
+     */
+    private void putRow(int offset, float y, float x0, float x1, float x2, float x3) {
+        mVerts.put(offset,     x0);  mVerts.put(offset + 1, y);
+        mVerts.put(offset + 2, x1);  mVerts.put(offset + 3, y);
+        mVerts.put(offset + 4, x2);  mVerts.put(offset + 5, y);
+        mVerts.put(offset + 6, x3);  mVerts.put(offset + 7, y);
     }
 }
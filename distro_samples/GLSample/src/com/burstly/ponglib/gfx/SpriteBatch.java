@@ -0,0 +1,198 @@
+package com.burstly.ponglib.gfx;
+
+import javax.microedition.khronos.opengles.GL10;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Collects the quads of many sprites which share a texture into one interleaved vertex buffer and draws them with a
+ * single indexed draw call.  Each vertex stores its position, texcoord and color, so sprites of different colors can
+ * be batched together.
+ *
+ * Usage: begin, setTexture, draw each sprite, end.  The batch flushes early if it fills up or the texture changes.
+ */
+public class SpriteBatch {
+    /**
+     * x, y, u, v, r, g, b, a
+     */
+    private static final int FLOATS_PER_VERTEX = 8;
+    private static final int STRIDE = FLOATS_PER_VERTEX * 4;
+
+    /**
+     * Largest number of vertices which can be addressed with short indices
+     */
+    private static final int MAX_VERTICES = 65536;
+
+    /**
+     * Interleaved vertex data, and views of it starting at the texcoord and color of the first vertex
+     */
+    private final FloatBuffer mVertexData;
+    private final FloatBuffer mTexCoordData;
+    private final FloatBuffer mColorData;
+
+    /**
+     * Triangle indices into the vertex data
+     */
+    private final ShortBuffer mIndices;
+
+    /**
+     * Capacity of the batch
+     */
+    private final int mMaxVertices;
+    private final int mMaxIndices;
+
+    /**
+     * Vertices and indices added since the last flush
+     */
+    private int mVertexCount;
+    private int mIndexCount;
+
+    /**
+     * openGL context reference set by begin
+     */
+    private GL10 mGL;
+
+    /**
+     * The texture bound for the sprites in the batch
+     */
+    private Texture mTexture;
+
+    /**
+     * Create a batch
+     *
+     * @param maxQuads Number of quads the batch holds before it has to flush.  A Sprite9Patch counts as 9 quads.
+     */
+    public SpriteBatch(int maxQuads) {
+        if(maxQuads <= 0 || maxQuads * 4 > MAX_VERTICES)
+            throw new IllegalArgumentException("maxQuads must be between 1 and " + (MAX_VERTICES / 4));
+
+        mMaxVertices = maxQuads * 4;
+        mMaxIndices = maxQuads * 6;
+
+        final ByteBuffer vertexBytes = ByteBuffer.allocateDirect(mMaxVertices * STRIDE);
+        vertexBytes.order(ByteOrder.nativeOrder());
+        mVertexData = vertexBytes.asFloatBuffer();
+
+        mVertexData.position(2);
+        mTexCoordData = mVertexData.slice();
+        mVertexData.position(4);
+        mColorData = mVertexData.slice();
+        mVertexData.position(0);
+
+        final ByteBuffer indexBytes = ByteBuffer.allocateDirect(mMaxIndices * 2);
+        indexBytes.order(ByteOrder.nativeOrder());
+        mIndices = indexBytes.asShortBuffer();
+    }
+
+    /**
+     * Start a batch
+     *
+     * @param gl openGL context reference
+     */
+    public void begin(final GL10 gl) {
+        mGL = gl;
+        mTexture = null;
+        mVertexCount = 0;
+        mIndexCount = 0;
+    }
+
+    /**
+     * Set the texture used by the sprites drawn next.  Flushes the batch if the texture changes.
+     *
+     * @param texture The texture to bind
+     */
+    public void setTexture(final Texture texture) {
+        if(texture == mTexture)
+            return;
+
+        flush();
+
+        mTexture = texture;
+        texture.setAsDiffuseTex();
+    }
+
+    /**
+     * Add a sprite to the batch
+     *
+     * @param sprite Sprite to draw with the current texture
+     */
+    public void draw(final Sprite sprite) {
+        sprite.addToBatch(this);
+    }
+
+    /**
+     * Draw everything in the batch and end it
+     */
+    public void end() {
+        flush();
+        mGL = null;
+    }
+
+    /**
+     * Add vertices and the triangles between them to the batch
+     *
+     * @param verts x,y positions
+     * @param texCoords u,v texcoords
+     * @param vertexCount Number of vertices
+     * @param indices Triangle indices relative to the first vertex
+     * @param color Color applied to every vertex
+     */
+    void add(final FloatBuffer verts, final FloatBuffer texCoords, int vertexCount, final byte[] indices, final Color color) {
+        if(vertexCount > mMaxVertices || indices.length > mMaxIndices)
+            throw new IllegalArgumentException("Sprite is too large for this SpriteBatch");
+
+        if(mVertexCount + vertexCount > mMaxVertices || mIndexCount + indices.length > mMaxIndices)
+            flush();
+
+        final float r = color.getRf();
+        final float g = color.getGf();
+        final float b = color.getBf();
+        final float a = color.getAf();
+
+        int offset = mVertexCount * FLOATS_PER_VERTEX;
+
+        for(int i = 0; i < vertexCount; i++) {
+            mVertexData.put(offset,     verts.get(2 * i));
+            mVertexData.put(offset + 1, verts.get(2 * i + 1));
+            mVertexData.put(offset + 2, texCoords.get(2 * i));
+            mVertexData.put(offset + 3, texCoords.get(2 * i + 1));
+            mVertexData.put(offset + 4, r);
+            mVertexData.put(offset + 5, g);
+            mVertexData.put(offset + 6, b);
+            mVertexData.put(offset + 7, a);
+
+            offset += FLOATS_PER_VERTEX;
+        }
+
+        for(int i = 0; i < indices.length; i++)
+            mIndices.put(mIndexCount + i, (short)(mVertexCount + indices[i]));
+
+        mVertexCount += vertexCount;
+        mIndexCount += indices.length;
+    }
+
+    /**
+     * Draw the sprites added so far in a single draw call
+     */
+    public void flush() {
+        if(mIndexCount == 0)
+            return;
+
+        if(mGL == null)
+            throw new IllegalStateException("SpriteBatch.begin must be called before drawing");
+
+        mGL.glEnableClientState(GL10.GL_COLOR_ARRAY);
+
+        mGL.glVertexPointer(2, GL10.GL_FLOAT, STRIDE, mVertexData);
+        mGL.glTexCoordPointer(2, GL10.GL_FLOAT, STRIDE, mTexCoordData);
+        mGL.glColorPointer(4, GL10.GL_FLOAT, STRIDE, mColorData);
+        mGL.glDrawElements(GL10.GL_TRIANGLES, mIndexCount, GL10.GL_UNSIGNED_SHORT, mIndices);
+
+        mGL.glDisableClientState(GL10.GL_COLOR_ARRAY);
+
+        mVertexCount = 0;
+        mIndexCount = 0;
+    }
+}
@@ -83,25 +83,36 @@ public class Texture {
      */
     private int[] mTexs;
 
+    /**
+     * true if the texture has mipmaps
+     */
+    private boolean mMips;
+
     /**
      * width of the original texture
      */
-    private final int mTexWidth;
+    private int mTexWidth;
 
     /**
      * height of the original texture
      */
-    private final int mTexHeight;
+    private int mTexHeight;
+
+    /**
+     * size of the power of 2 texture allocated by openGL
+     */
+    private int mAllocWidth;
+    private int mAllocHeight;
 
     /**
      * maximum U value which has pixel data loaded into it
      */
-    private final float mMaxU;
+    private float mMaxU;
 
     /**
      * maximum V value which has pixel data loaded into it
      */
-    private final float mMaxV;
+    private float mMaxV;
 
     /**
      * Creates a texture from a bitmap
@@ -112,14 +123,19 @@ public class Texture {
      */
     public Texture(GL11 gl, boolean mips, Bitmap bitmap)
     {
-        if(bitmap == null) {
-            mGL = null;
-            mTexs = null;
-            mTexWidth = mTexHeight = 0;
-            mMaxV = mMaxU = 0.0f;
-            return;
-        }
+        mMips = mips;
+
+        if(bitmap != null)
+            upload(gl, bitmap);
+    }
 
+    /**
+     * Upload the pixel data into a new openGL texture
+     *
+     * @param gl openGL context reference
+     * @param bitmap Bitmap to load the pixel data from
+     */
+    private void upload(GL11 gl, Bitmap bitmap) {
         //initialize openGL texture and bind it
         mGL = gl;
         mTexs = new int[1];
@@ -134,6 +150,8 @@ public class Texture {
         boolean created = false;
         int width = isPowerOf2(mTexWidth) ? mTexWidth : getNextPowerOf2(mTexWidth);
         int height = isPowerOf2(mTexHeight) ? mTexHeight : getNextPowerOf2(mTexHeight);
+        mAllocWidth = width;
+        mAllocHeight = height;
 
         //store the UV coordinates which store the original texture
         mMaxU = mTexWidth / (float)width;
@@ -158,7 +176,7 @@ public class Texture {
         gl.glTexParameterf(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
 
         //generate mips if wanted
-        if(mips) {
+        if(mMips) {
             gl.glTexParameterf(GL11.GL_TEXTURE_2D, GL11.GL_GENERATE_MIPMAP, GL11.GL_TRUE);
         }
 
@@ -171,23 +189,64 @@ public class Texture {
     }
 
     /**
-     * Make sure the texture gets deleted
+     * Upload the texture again after the openGL context was lost.  The old texture identifier died with the context so
+     * it is dropped without being deleted.
+     *
+     * @param gl openGL context reference for the new context
+     * @param bitmap Bitmap to load the pixel data from
      */
-    @Override
-    public void finalize() {
-        try {
-            super.finalize();
-        }
-        catch (Throwable ignore) {
-        }
+    void reload(GL11 gl, Bitmap bitmap) {
+        mTexs = null;
+        mGL = null;
+        upload(gl, bitmap);
+    }
 
+    /**
+     * Delete the openGL texture.  Must be called on the GL thread.  Textures obtained from a {@link TextureManager}
+     * should be released through the manager instead.
+     */
+    public void delete() {
+        if(mTexs != null)
+            delete(mGL);
+    }
+
+    /**
+     * Delete the openGL texture using the given context reference.  Must be called on the GL thread.
+     *
+     * @param gl openGL context reference
+     */
+    void delete(GL11 gl) {
         if(mTexs != null) {
-            mGL.glDeleteTextures(1, mTexs, 0);
+            gl.glDeleteTextures(1, mTexs, 0);
             mTexs = null;
             mGL = null;
         }
     }
 
+    /**
+     * Check if the texture still holds an openGL texture
+     *
+     * @return true until the texture is deleted
+     */
+    public boolean isLoaded() {
+        return mTexs != null;
+    }
+
+    /**
+     * Get an estimate of the video memory used by the texture, assuming 32 bit pixels
+     *
+     * @return size in bytes, including mipmaps
+     */
+    public int getResidentBytes() {
+        if(mTexs == null)
+            return 0;
+
+        final int bytes = mAllocWidth * mAllocHeight * 4;
+
+        //a full mip chain adds a third to the size of the top level
+        return mMips ? bytes + bytes / 3 : bytes;
+    }
+
     /**
      * binds the openGL tex
      */
@@ -0,0 +1,346 @@
+package com.burstly.ponglib.gfx;
+
+import android.graphics.Bitmap;
+
+import javax.microedition.khronos.opengles.GL11;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * A set of named regions on one or more texture pages.  Many images packed onto a few pages can be drawn with few
+ * texture binds, and sprites can be built from a region name instead of hand computed UV coordinates.
+ *
+ * Atlases are either packed at load time from separate images with a {@link Packer}, or described by a manifest of
+ * pixel rectangles for an image which was packed ahead of time.  The pages of a packed atlas are owned by a
+ * {@link TextureManager}, which reloads them with its other textures when the GL context is lost, so existing regions
+ * and sprites stay usable.
+ */
+public class TextureAtlas {
+    /**
+     * Packs images into power of 2 pages at load time
+     */
+    public static class Packer {
+        /**
+         * An image waiting to be packed
+         */
+        private static class Entry {
+            final String mName;
+            final Bitmap mBitmap;
+
+            Entry(final String name, final Bitmap bitmap) {
+                mName = name;
+                mBitmap = bitmap;
+            }
+        }
+
+        /**
+         * A row of images on a page, as tall as its first (tallest) image
+         */
+        private static class Shelf {
+            final int mY;
+            final int mHeight;
+            int mX;
+
+            Shelf(int y, int height) {
+                mY = y;
+                mHeight = height;
+            }
+        }
+
+        /**
+         * Where an image was copied to on a page
+         */
+        private static class Placement {
+            final Entry mEntry;
+            final int mX;
+            final int mY;
+
+            Placement(final Entry entry, int x, int y) {
+                mEntry = entry;
+                mX = x;
+                mY = y;
+            }
+        }
+
+        /**
+         * A page being filled
+         */
+        private static class Page {
+            final Bitmap mBitmap;
+            final ArrayList<Shelf> mShelves = new ArrayList<Shelf>();
+            final ArrayList<Placement> mPlacements = new ArrayList<Placement>();
+            int mNextY;
+
+            Page(int size) {
+                mBitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            }
+        }
+
+        /**
+         * Sorts images tallest first so shelves waste as little height as possible
+         */
+        private static final Comparator<Entry> TALLEST_FIRST = new Comparator<Entry>() {
+            public int compare(final Entry a, final Entry b) {
+                return b.mBitmap.getHeight() - a.mBitmap.getHeight();
+            }
+        };
+
+        /**
+         * Width and height of each page
+         */
+        private final int mPageSize;
+
+        /**
+         * Empty pixels left between images so filtering doesn't bleed neighbouring images into each other
+         */
+        private final int mPadding;
+
+        /**
+         * Images added so far
+         */
+        private final ArrayList<Entry> mEntries = new ArrayList<Entry>();
+
+        /**
+         * Create a packer
+         *
+         * @param pageSize Width and height of each page, must be a power of 2
+         * @param padding Pixels left between images
+         */
+        public Packer(int pageSize, int padding) {
+            if(pageSize <= 0 || (pageSize & (pageSize - 1)) != 0)
+                throw new IllegalArgumentException("Page size must be a power of 2");
+
+            if(padding < 0)
+                throw new IllegalArgumentException("Padding must not be negative");
+
+            mPageSize = pageSize;
+            mPadding = padding;
+        }
+
+        /**
+         * Add an image to be packed.  The bitmap is only read when pack is called, and is not recycled by the packer.
+         *
+         * @param name Name of the region the image will be stored in
+         * @param bitmap The image
+         */
+        public void add(final String name, final Bitmap bitmap) {
+            if(bitmap.getWidth() > mPageSize || bitmap.getHeight() > mPageSize)
+                throw new IllegalArgumentException("Image " + name + " is larger than the atlas page size");
+
+            mEntries.add(new Entry(name, bitmap));
+        }
+
+        /**
+         * Pack every image added into as few pages as possible and create a texture for each page.  The pages are
+         * acquired from the texture manager and held until the atlas is released.  Must be called on the GL thread.
+         *
+         * @param textures Manager which owns the pages
+         * @param gl openGL context reference
+         * @param mips true generates mipmaps, false doesn't
+         * @return The packed atlas
+         */
+        public TextureAtlas pack(final TextureManager textures, final GL11 gl, boolean mips) {
+            final ArrayList<Entry> entries = new ArrayList<Entry>(mEntries);
+            Collections.sort(entries, TALLEST_FIRST);
+
+            final ArrayList<Page> pages = new ArrayList<Page>();
+
+            for(int i = 0; i < entries.size(); i++)
+                place(pages, entries.get(i));
+
+            final TextureAtlas atlas = new TextureAtlas();
+            atlas.mTextures = textures;
+
+            for(int i = 0; i < pages.size(); i++) {
+                final Page page = pages.get(i);
+                final Texture texture = textures.acquireBitmap(gl, page.mBitmap, mips);
+                atlas.mPages.add(texture);
+
+                for(int j = 0; j < page.mPlacements.size(); j++) {
+                    final Placement placement = page.mPlacements.get(j);
+                    final Bitmap bitmap = placement.mEntry.mBitmap;
+
+                    atlas.addRegion(placement.mEntry.mName, texture, placement.mX, placement.mY, bitmap.getWidth(), bitmap.getHeight());
+                }
+            }
+
+            return atlas;
+        }
+
+        /**
+         * Find room for an image on the first page that has it, starting a new page if none do, and copy it there
+         *
+         * @param pages Pages created so far
+         * @param entry The image
+         */
+        private void place(final ArrayList<Page> pages, final Entry entry) {
+            final int width = entry.mBitmap.getWidth();
+            final int height = entry.mBitmap.getHeight();
+
+            for(int i = 0; i < pages.size(); i++) {
+                if(place(pages.get(i), entry, width, height))
+                    return;
+            }
+
+            final Page page = new Page(mPageSize);
+            pages.add(page);
+            place(page, entry, width, height);
+        }
+
+        /**
+         * Place an image on an existing shelf of a page or on a new shelf below them
+         *
+         * @return true if the image fit on the page
+         */
+        private boolean place(final Page page, final Entry entry, int width, int height) {
+            Shelf target = null;
+
+            for(int i = 0; i < page.mShelves.size() && target == null; i++) {
+                final Shelf shelf = page.mShelves.get(i);
+
+                if(height <= shelf.mHeight && shelf.mX + width <= mPageSize)
+                    target = shelf;
+            }
+
+            if(target == null) {
+                if(page.mNextY + height > mPageSize)
+                    return false;
+
+                target = new Shelf(page.mNextY, height);
+                page.mShelves.add(target);
+                page.mNextY += height + mPadding;
+            }
+
+            final int[] pixels = new int[width * height];
+            entry.mBitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+            page.mBitmap.setPixels(pixels, 0, width, target.mX, target.mY, width, height);
+
+            page.mPlacements.add(new Placement(entry, target.mX, target.mY));
+
+            target.mX += width + mPadding;
+            return true;
+        }
+    }
+
+    /**
+     * Regions by name
+     */
+    private final HashMap<String, TextureRegion> mRegions = new HashMap<String, TextureRegion>();
+
+    /**
+     * Pages created by a {@link Packer}
+     */
+    private final ArrayList<Texture> mPages = new ArrayList<Texture>();
+
+    /**
+     * Manager owning the pages, or null if the atlas wasn't packed
+     */
+    private TextureManager mTextures;
+
+    /**
+     * Add a region describing a rectangle of pixels on a texture
+     *
+     * @param name Name of the region
+     * @param texture The texture holding the region
+     * @param x Left edge in pixels
+     * @param y Top edge in pixels
+     * @param width Width in pixels
+     * @param height Height in pixels
+     * @return The new region
+     */
+    public TextureRegion addRegion(final String name, final Texture texture, float x, float y, float width, float height) {
+        final TextureRegion region = new TextureRegion(name, texture, x, y, width, height);
+        mRegions.put(name, region);
+        return region;
+    }
+
+    /**
+     * Add the regions listed in a manifest for an image which was packed ahead of time.  Each line of the manifest is
+     * "name x y width height" in pixels.  Blank lines and lines starting with # are ignored.
+     *
+     * @param texture The texture the manifest describes
+     * @param manifest Stream reading the manifest.  Closed when done.
+     * @throws IOException if the manifest can't be read or a line is malformed
+     */
+    public void addRegions(final Texture texture, final InputStream manifest) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(manifest, "UTF-8"));
+
+        try {
+            String line;
+
+            while((line = reader.readLine()) != null) {
+                line = line.trim();
+
+                if(line.length() == 0 || line.startsWith("#"))
+                    continue;
+
+                final String[] fields = line.split("\\s+");
+
+                if(fields.length != 5)
+                    throw new IOException("Malformed atlas manifest line: " + line);
+
+                try {
+                    addRegion(fields[0], texture, Float.parseFloat(fields[1]), Float.parseFloat(fields[2]), Float.parseFloat(fields[3]), Float.parseFloat(fields[4]));
+                }
+                catch (NumberFormatException e) {
+                    throw new IOException("Malformed atlas manifest line: " + line);
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Get a region by name
+     *
+     * @param name Name of the region
+     * @return The region
+     */
+    public TextureRegion getRegion(final String name) {
+        final TextureRegion region = mRegions.get(name);
+
+        if(region == null)
+            throw new IllegalArgumentException("No atlas region named " + name);
+
+        return region;
+    }
+
+    /**
+     * Get the number of pages created when the atlas was packed
+     *
+     * @return page count
+     */
+    public int getPageCount() {
+        return mPages.size();
+    }
+
+    /**
+     * Get a page created when the atlas was packed
+     *
+     * @param index Page index
+     * @return The page's texture
+     */
+    public Texture getPage(int index) {
+        return mPages.get(index);
+    }
+
+    /**
+     * Release the pages created when the atlas was packed back to their {@link TextureManager}, which deletes them on
+     * the GL thread.  Can be called on any thread.  Textures passed to addRegion belong to the caller and are not
+     * released.
+     */
+    public void release() {
+        for(int i = 0; i < mPages.size(); i++)
+            mTextures.release(mPages.get(i));
+
+        mPages.clear();
+    }
+}
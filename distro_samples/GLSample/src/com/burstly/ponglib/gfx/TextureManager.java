@@ -0,0 +1,322 @@
+package com.burstly.ponglib.gfx;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import javax.microedition.khronos.opengles.GL11;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Caches textures loaded from resources and assets so each image is only loaded once however many users it has.  Also
+ * owns the pages of atlases packed with {@link TextureAtlas.Packer}, keeping their pixels so they can be reloaded.
+ *
+ * Every acquire must be matched by a release.  When a texture's last user releases it, it is queued and deleted on the
+ * GL thread by the next call to {@link #deletePending}, so release can be called from any thread.  When the GL context
+ * is lost, {@link #reload} loads every cached texture into the new context so existing {@link Texture} references
+ * remain usable.
+ */
+public class TextureManager {
+    /**
+     * A cached texture and where it was loaded from
+     */
+    private static class Entry {
+        /**
+         * Resource identifier, or 0 if loaded from an asset or a bitmap
+         */
+        final int mResId;
+
+        /**
+         * Asset path, or null if loaded from a resource or a bitmap
+         */
+        final String mAssetPath;
+
+        /**
+         * Pixels of a texture created from a bitmap, or null if loaded from a resource or an asset
+         */
+        final Bitmap mBitmap;
+
+        final Texture mTexture;
+        int mRefCount;
+
+        Entry(int resId, final String assetPath, final Bitmap bitmap, final Texture texture) {
+            mResId = resId;
+            mAssetPath = assetPath;
+            mBitmap = bitmap;
+            mTexture = texture;
+        }
+    }
+
+    /**
+     * Context used for loading resources and assets
+     */
+    private final Context mContext;
+
+    /**
+     * Cached textures by key
+     */
+    private final HashMap<String, Entry> mEntries = new HashMap<String, Entry>();
+
+    /**
+     * Textures released by their last user which still need deleting on the GL thread
+     */
+    private final ArrayList<Texture> mPendingDeletes = new ArrayList<Texture>();
+
+    /**
+     * Number used to key the next texture created from a bitmap
+     */
+    private int mNextBitmapId;
+
+    /**
+     * Create a texture manager
+     *
+     * @param context Android Context for loading resources and assets
+     */
+    public TextureManager(final Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    /**
+     * Get a texture loaded from a resource, loading it if it isn't cached.  Must be called on the GL thread.
+     *
+     * @param gl openGL context reference
+     * @param res resource identifier
+     * @param mips true generates mipmaps, false doesn't.  Only used when the texture is first loaded.
+     * @return The texture
+     */
+    public synchronized Texture acquireResource(final GL11 gl, int res, boolean mips) {
+        final String key = resourceKey(res);
+        Entry entry = mEntries.get(key);
+
+        if(entry == null) {
+            final Bitmap bitmap = decodeResource(res);
+            entry = new Entry(res, null, null, new Texture(gl, mips, bitmap));
+            bitmap.recycle();
+
+            mEntries.put(key, entry);
+        }
+
+        entry.mRefCount++;
+        return entry.mTexture;
+    }
+
+    /**
+     * Get a texture loaded from an asset, loading it if it isn't cached.  Must be called on the GL thread.
+     *
+     * @param gl openGL context reference
+     * @param path asset path
+     * @param mips true generates mipmaps, false doesn't.  Only used when the texture is first loaded.
+     * @return The texture
+     */
+    public synchronized Texture acquireAsset(final GL11 gl, final String path, boolean mips) {
+        final String key = assetKey(path);
+        Entry entry = mEntries.get(key);
+
+        if(entry == null) {
+            final Bitmap bitmap = decodeAsset(path);
+            entry = new Entry(0, path, null, new Texture(gl, mips, bitmap));
+            bitmap.recycle();
+
+            mEntries.put(key, entry);
+        }
+
+        entry.mRefCount++;
+        return entry.mTexture;
+    }
+
+    /**
+     * Create a texture from a bitmap which the manager takes ownership of.  The bitmap is kept to reload the texture
+     * after the GL context is lost, and recycled when the texture's last user releases it.  Must be called on the GL
+     * thread.
+     *
+     * @param gl openGL context reference
+     * @param bitmap Pixels of the texture
+     * @param mips true generates mipmaps, false doesn't
+     * @return The texture, acquired once
+     */
+    synchronized Texture acquireBitmap(final GL11 gl, final Bitmap bitmap, boolean mips) {
+        final Entry entry = new Entry(0, null, bitmap, new Texture(gl, mips, bitmap));
+        mEntries.put(bitmapKey(mNextBitmapId++), entry);
+
+        entry.mRefCount++;
+        return entry.mTexture;
+    }
+
+    /**
+     * Release a texture acquired from this manager.  Can be called on any thread.
+     *
+     * @param texture The texture
+     */
+    public synchronized void release(final Texture texture) {
+        final Iterator<Entry> it = mEntries.values().iterator();
+
+        while(it.hasNext()) {
+            final Entry entry = it.next();
+
+            if(entry.mTexture == texture) {
+                if(--entry.mRefCount == 0) {
+                    it.remove();
+                    mPendingDeletes.add(texture);
+
+                    if(entry.mBitmap != null)
+                        entry.mBitmap.recycle();
+                }
+
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("Texture was not acquired from this TextureManager");
+    }
+
+    /**
+     * Delete the textures whose last user released them.  Call on the GL thread, once per frame.
+     *
+     * @param gl openGL context reference
+     */
+    public synchronized void deletePending(final GL11 gl) {
+        for(int i = mPendingDeletes.size() - 1; i >= 0; i--)
+            mPendingDeletes.get(i).delete(gl);
+
+        mPendingDeletes.clear();
+    }
+
+    /**
+     * Load every cached texture into a new GL context.  Call from GLSurfaceView.Renderer.onSurfaceCreated.  Textures
+     * waiting to be deleted are dropped, as they died with the old context.
+     *
+     * @param gl openGL context reference for the new context
+     */
+    public synchronized void reload(final GL11 gl) {
+        mPendingDeletes.clear();
+
+        for(final Entry entry : mEntries.values()) {
+            if(entry.mBitmap != null) {
+                entry.mTexture.reload(gl, entry.mBitmap);
+                continue;
+            }
+
+            final Bitmap bitmap = (entry.mAssetPath != null) ? decodeAsset(entry.mAssetPath) : decodeResource(entry.mResId);
+            entry.mTexture.reload(gl, bitmap);
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * Get the number of textures in the cache
+     *
+     * @return texture count
+     */
+    public synchronized int getTextureCount() {
+        return mEntries.size();
+    }
+
+    /**
+     * Get an estimate of the video memory used by the cached textures and the textures waiting to be deleted
+     *
+     * @return size in bytes
+     */
+    public synchronized int getResidentBytes() {
+        int bytes = 0;
+
+        for(final Entry entry : mEntries.values())
+            bytes += entry.mTexture.getResidentBytes();
+
+        for(int i = 0; i < mPendingDeletes.size(); i++)
+            bytes += mPendingDeletes.get(i).getResidentBytes();
+
+        return bytes;
+    }
+
+    /**
+     * Get a summary of the cache for logging
+     *
+     * @return textures, users and resident memory
+     */
+    @Override
+    public synchronized String toString() {
+        int refs = 0;
+
+        for(final Entry entry : mEntries.values())
+            refs += entry.mRefCount;
+
+        return "TextureManager: " + mEntries.size() + " textures, " + refs + " users, " + mPendingDeletes.size() +
+                " pending deletes, " + (getResidentBytes() / 1024) + "KB resident";
+    }
+
+    /**
+     * Get the cache key of a resource
+     */
+    private static String resourceKey(int res) {
+        return "res:" + res;
+    }
+
+    /**
+     * Get the cache key of an asset
+     */
+    private static String assetKey(final String path) {
+        return "asset:" + path;
+    }
+
+    /**
+     * Get the cache key of a texture created from a bitmap
+     */
+    private static String bitmapKey(int id) {
+        return "bitmap:" + id;
+    }
+
+    /**
+     * Decode a resource at its native size
+     *
+     * @param res resource identifier
+     * @return the decoded bitmap
+     */
+    private Bitmap decodeResource(int res) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inTargetDensity = 1;
+        options.inDensity = 1;
+
+        final Bitmap bitmap = BitmapFactory.decodeResource(mContext.getResources(), res, options);
+
+        if(bitmap == null)
+            throw new RuntimeException("Unable to decode texture resource " + res);
+
+        return bitmap;
+    }
+
+    /**
+     * Decode an asset
+     *
+     * @param path asset path
+     * @return the decoded bitmap
+     */
+    private Bitmap decodeAsset(final String path) {
+        InputStream in = null;
+
+        try {
+            in = mContext.getAssets().open(path);
+            final Bitmap bitmap = BitmapFactory.decodeStream(in);
+
+            if(bitmap == null)
+                throw new RuntimeException("Unable to decode texture asset " + path);
+
+            return bitmap;
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            if(in != null) {
+                try {
+                    in.close();
+                }
+                catch (IOException ignore) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.burstly.ponglib.gfx;
+
+import android.graphics.RectF;
+
+/**
+ * A named rectangle of a texture atlas page
+ */
+public class TextureRegion {
+    /**
+     * Name used to look the region up in its atlas
+     */
+    private final String mName;
+
+    /**
+     * The atlas page holding the region
+     */
+    private final Texture mTexture;
+
+    /**
+     * UV coordinates of the region
+     */
+    private final RectF mTexRect;
+
+    /**
+     * Size of the region in pixels
+     */
+    private final float mWidth;
+    private final float mHeight;
+
+    /**
+     * Create a region from a rectangle of pixels on a texture
+     *
+     * @param name Name of the region
+     * @param texture The texture holding the region
+     * @param x Left edge in pixels
+     * @param y Top edge in pixels
+     * @param width Width in pixels
+     * @param height Height in pixels
+     */
+    TextureRegion(final String name, final Texture texture, float x, float y, float width, float height) {
+        mName = name;
+        mTexture = texture;
+        mWidth = width;
+        mHeight = height;
+
+        //the texture may have been padded to a power of 2 so scale pixels by the used portion of the UV range
+        final float uScale = texture.getMaxU() / texture.getWidth();
+        final float vScale = texture.getMaxV() / texture.getHeight();
+
+        mTexRect = new RectF(x * uScale, y * vScale, (x + width) * uScale, (y + height) * vScale);
+    }
+
+    /**
+     * Get the name of the region
+     *
+     * @return name
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Get the texture holding the region.  Bind it before drawing sprites built from the region.
+     *
+     * @return atlas page texture
+     */
+    public Texture getTexture() {
+        return mTexture;
+    }
+
+    /**
+     * Get the UV coordinates of the region
+     *
+     * @return UV rect
+     */
+    public RectF getTexRect() {
+        return mTexRect;
+    }
+
+    /**
+     * Get the width of the region
+     *
+     * @return width in pixels
+     */
+    public float getWidth() {
+        return mWidth;
+    }
+
+    /**
+     * Get the height of the region
+     *
+     * @return height in pixels
+     */
+    public float getHeight() {
+        return mHeight;
+    }
+}
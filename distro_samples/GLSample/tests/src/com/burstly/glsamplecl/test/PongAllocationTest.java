@@ -0,0 +1,181 @@
+package com.burstly.glsamplecl.test;
+
+import android.os.Debug;
+import android.test.ActivityInstrumentationTestCase2;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+import com.burstly.glsamplecl.MainActivity;
+import com.burstly.ponglib.BurstlyPong;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLContext;
+import javax.microedition.khronos.opengles.GL10;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that the pong main loop doesn't allocate.  Frames are driven directly on the GL thread, with the game's own
+ * context current, while the thread's allocations are counted.
+ */
+public class PongAllocationTest extends ActivityInstrumentationTestCase2<MainActivity> {
+    private static final String TAG = "PongAllocationTest";
+
+    /**
+     * Frames run before counting so anything created lazily on the first frames isn't counted
+     */
+    private static final int WARMUP_FRAMES = 10;
+
+    /**
+     * Frames counted.  Short enough that the ball can't leave the play area after a new round starts, so no point is
+     * scored and the activity isn't asked to show an ad.
+     */
+    private static final int COUNTED_FRAMES = 100;
+
+    private static final float FRAME_TIME = 1.0f / 60.0f;
+
+    /**
+     * How long to wait for the GL thread
+     */
+    private static final long TIMEOUT_MS = 10 * 1000;
+
+    /**
+     * Allocations counted on the GL thread, or -1 if the context wasn't ready
+     */
+    private volatile int mFrameAllocations;
+    private volatile int mControlAllocations;
+
+    /**
+     * Holds the object allocated to check that allocations are being counted
+     */
+    private Object mControl;
+
+    public PongAllocationTest() {
+        super(MainActivity.class);
+    }
+
+    /**
+     * Update and render frames and check none of them allocated
+     */
+    public void testFramesDontAllocate() throws InterruptedException {
+        final BurstlyPong pong = findPong(getActivity().getWindow().getDecorView());
+        assertNotNull("BurstlyPong view not found", pong);
+
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+
+        while(true) {
+            runOnGLThread(pong, new Runnable() {
+                public void run() {
+                    countFrameAllocations(pong);
+                }
+            });
+
+            if(mFrameAllocations >= 0 || System.currentTimeMillis() > deadline)
+                break;
+
+            //the GL thread runs queued tasks before its surface is created, so wait for the game to start
+            Thread.sleep(100);
+        }
+
+        assertTrue("GL context was never created", mFrameAllocations >= 0);
+
+        //Debug only counts allocations on some runtimes.  JUnit 3 has no skipped state, so the skip is logged
+        if(mControlAllocations == 0) {
+            Log.w(TAG, "SKIPPED testFramesDontAllocate: this runtime doesn't count allocations");
+            return;
+        }
+
+        assertEquals("Frames allocated " + mFrameAllocations + " objects", 0, mFrameAllocations);
+    }
+
+    /**
+     * Run frames on the GL thread and record how many objects they allocated.  Must be called on the GL thread.
+     *
+     * @param pong The game
+     */
+    private void countFrameAllocations(final BurstlyPong pong) {
+        final EGL10 egl = (EGL10)EGLContext.getEGL();
+        final EGLContext context = egl.eglGetCurrentContext();
+
+        if(context == null || context.equals(EGL10.EGL_NO_CONTEXT)) {
+            mFrameAllocations = -1;
+            return;
+        }
+
+        final GL10 gl = (GL10)context.getGL();
+
+        //start a new round on the first warmup frame so the ball is in the middle of the play area
+        pong.setPaused(true);
+        pong.nextRound();
+
+        for(int i = 0; i < WARMUP_FRAMES; i++) {
+            pong.update(FRAME_TIME);
+            pong.render(gl);
+        }
+
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+
+        for(int i = 0; i < COUNTED_FRAMES; i++) {
+            pong.update(FRAME_TIME);
+            pong.render(gl);
+        }
+
+        Debug.stopAllocCounting();
+        mFrameAllocations = Debug.getThreadAllocCount();
+
+        //make sure counting works here by counting a known allocation
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        mControl = new Object();
+        Debug.stopAllocCounting();
+        mControlAllocations = Debug.getThreadAllocCount();
+    }
+
+    /**
+     * Run a task on the GL thread and wait for it to finish
+     *
+     * @param pong The view owning the GL thread
+     * @param task The task
+     */
+    private static void runOnGLThread(final BurstlyPong pong, final Runnable task) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+
+        pong.queueEvent(new Runnable() {
+            public void run() {
+                try {
+                    task.run();
+                }
+                finally {
+                    done.countDown();
+                }
+            }
+        });
+
+        assertTrue("GL thread didn't run the task", done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Find the game's view in the activity's view hierarchy
+     *
+     * @param view Root of the hierarchy to search
+     * @return The game, or null if it isn't in the hierarchy
+     */
+    private static BurstlyPong findPong(final View view) {
+        if(view instanceof BurstlyPong)
+            return (BurstlyPong)view;
+
+        if(view instanceof ViewGroup) {
+            final ViewGroup group = (ViewGroup)view;
+
+            for(int i = 0; i < group.getChildCount(); i++) {
+                final BurstlyPong pong = findPong(group.getChildAt(i));
+
+                if(pong != null)
+                    return pong;
+            }
+        }
+
+        return null;
+    }
+}